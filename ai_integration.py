@@ -336,6 +336,49 @@ class MedicalAI:
         return ("Thank you for your question. I'm here to provide general health information. "
                "For specific medical advice, diagnosis, or treatment, please consult a qualified healthcare provider.")
 
+def run_worker(ai: MedicalAI):
+    """
+    Serve newline-delimited JSON requests on stdin until it is closed
+    
+    Request:  {"id": 1, "method": "analyze", "params": {"symptoms": ["fever"]}}
+    Response: {"id": 1, "result": {...}} or {"id": 1, "error": "..."}
+    
+    Responses are written in request order, one line each, so callers may pipeline requests.
+    Logging goes to stderr and never mixes with the protocol on stdout.
+    """
+    handlers = {
+        "ping": lambda params: "pong",
+        "analyze": lambda params: ai.analyze_symptoms(params["symptoms"], params.get("age"), params.get("gender")),
+        "medication": lambda params: ai.get_medication_info(params["name"]),
+        "firstaid": lambda params: ai.get_first_aid_advice(params["situation"]),
+        "chat": lambda params: ai.chat_response(params["message"]),
+    }
+    
+    sys.stdin.reconfigure(encoding="utf-8")
+    while True:
+        line = sys.stdin.readline()
+        if not line:
+            break
+        line = line.strip()
+        if not line:
+            continue
+        
+        request_id = None
+        try:
+            request = json.loads(line)
+            request_id = request.get("id")
+            handler = handlers.get(request.get("method"))
+            if handler is None:
+                response = {"id": request_id, "error": f"Unknown method: {request.get('method')}"}
+            else:
+                response = {"id": request_id, "result": handler(request.get("params") or {})}
+        except Exception as e:
+            logger.error(f"Worker request failed: {e}")
+            response = {"id": request_id, "error": str(e)}
+        
+        sys.stdout.write(json.dumps(response) + "\n")
+        sys.stdout.flush()
+
 def main():
     """Main function for command-line testing"""
     if len(sys.argv) < 2:
@@ -345,6 +388,7 @@ def main():
         print("  medication <medication_name>")
         print("  firstaid <situation>")
         print("  chat <message>")
+        print("  worker  (newline-delimited JSON requests on stdin)")
         return
     
     ai = MedicalAI()
@@ -389,6 +433,9 @@ def main():
         result = ai.chat_response(message)
         print(result)
     
+    elif command == "worker":
+        run_worker(ai)
+    
     else:
         print(f"Unknown command: {command}")
 
@@ -9,21 +9,42 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.web.WebView;
 import javafx.scene.web.WebEngine;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 public class AIMedicalBotController {
 
     private MainController mainController;
     private VBox aiMedicalBotView;
-    private ScrollPane chatScrollPane;
-    private VBox chatContainer;
+    private ListView<ChatMessage> chatList;
     private TextField messageField;
     private Button sendButton;
-    private List<ChatMessage> chatHistory = new ArrayList<>();
+    // Full history lives in chatHistory; the list view only holds a window of it
+    private static final int HISTORY_IN_MEMORY = 200;
+    private static final int MAX_VISIBLE_MESSAGES = 150;
+    private static final int HISTORY_PAGE_SIZE = 50;
+    private final ChatHistory chatHistory = new ChatHistory(HISTORY_IN_MEMORY);
+    private final ObservableList<ChatMessage> visibleMessages = FXCollections.observableArrayList();
+    private int windowStart = 0;
+    private boolean olderMessagesRequested = false;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private StreamingReply activeReply;
+    private final IntentEngine intents = IntentEngine.load("/intents/medical-bot.json");
 
     public AIMedicalBotController(MainController mainController) {
         this.mainController = mainController;
         initializeAIMedicalBotView();
+        // Start the Python workers now so the first question does not pay for interpreter startup
+        mainController.getTaskScheduler().submit(null, "ai-worker-warmup", AIWorkerPool::getInstance);
     }
 
     private void initializeAIMedicalBotView() {
@@ -75,16 +96,12 @@ public class AIMedicalBotController {
         chatInterface.setSpacing(15);
         chatInterface.setPrefHeight(500);
 
-        // Chat container with scroll
-        chatContainer = new VBox();
-        chatContainer.setSpacing(10);
-        chatContainer.setPadding(new Insets(10));
-
-        chatScrollPane = new ScrollPane(chatContainer);
-        chatScrollPane.setFitToWidth(true);
-        chatScrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        chatScrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        chatScrollPane.setPrefHeight(400);
+        // Virtualized chat list: only the visible bubbles exist as nodes
+        chatList = new ListView<>(visibleMessages);
+        chatList.getStyleClass().add("chat-list");
+        chatList.setCellFactory(list -> new ChatMessageCell());
+        chatList.setFocusTraversable(false);
+        chatList.setPrefHeight(400);
 
         // Welcome message
         addBotMessage("Hello! I'm your AI medical assistant. I can help you with:\n" +
@@ -101,7 +118,7 @@ public class AIMedicalBotController {
         // Message input area
         HBox inputArea = createInputArea();
 
-        chatInterface.getChildren().addAll(chatScrollPane, quickActions, inputArea);
+        chatInterface.getChildren().addAll(chatList, quickActions, inputArea);
         return chatInterface;
     }
 
@@ -185,179 +202,310 @@ public class AIMedicalBotController {
         String message = messageField.getText().trim();
         if (message.isEmpty()) return;
 
+        // A new question replaces an answer that is still streaming
+        if (activeReply != null) {
+            activeReply.cancel();
+        }
+
         // Add user message
         addUserMessage(message);
         messageField.clear();
 
-        // Simulate AI response
-        sendButton.setDisable(true);
-        sendButton.setText("Thinking...");
-
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000); // Simulate processing time
-                String response = generateAIResponse(message);
-                
-                javafx.application.Platform.runLater(() -> {
-                    addBotMessage(response);
-                    sendButton.setDisable(false);
-                    sendButton.setText("Send");
-                });
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
-    }
+        ChatMessage reply = new ChatMessage("…", false);
+        addMessage(reply);
 
-    private void addUserMessage(String message) {
-        ChatMessage chatMessage = new ChatMessage(message, true);
-        chatHistory.add(chatMessage);
-        
-        VBox messageBox = createMessageBox(message, true);
-        chatContainer.getChildren().add(messageBox);
-        
-        scrollToBottom();
+        activeReply = new StreamingReply(reply);
+        activeReply.start();
+        streamResponse(message).subscribe(activeReply);
     }
 
-    private void addBotMessage(String message) {
-        ChatMessage chatMessage = new ChatMessage(message, false);
-        chatHistory.add(chatMessage);
-        
-        VBox messageBox = createMessageBox(message, false);
-        chatContainer.getChildren().add(messageBox);
-        
-        scrollToBottom();
+    // The intent answer right away, then whatever the knowledge base adds once the Python workers reply
+    private Flow.Publisher<String> streamResponse(String message) {
+        return new ChatResponseStream(stream -> {
+            stream.emit(generateAIResponse(message));
+            mainController.getTaskScheduler().submit("AIMedicalBot", "ai-lookup", AIWorkerPool::getInstance).whenComplete((workers, lookupError) -> {
+                if (lookupError != null || workers == null || stream.isCancelled()) {
+                    stream.complete();
+                    return;
+                }
+                // Both lookups are pipelined to the warm workers; each section streams as soon as it arrives
+                CompletableFuture<Void> medication = workers.call("medication", Map.of("name", message))
+                    .thenAccept(info -> stream.emit(describeMedication(info)));
+                CompletableFuture<Void> firstAid = workers.call("firstaid", Map.of("situation", message))
+                    .thenAccept(info -> stream.emit(describeFirstAid(info)));
+                // A failed lookup only means there is nothing to add
+                CompletableFuture.allOf(medication, firstAid).whenComplete((ignored, error) -> stream.complete());
+            });
+        });
     }
 
-    private VBox createMessageBox(String message, boolean isUser) {
-        VBox messageBox = new VBox();
-        messageBox.setSpacing(5);
-        messageBox.setAlignment(isUser ? Pos.CENTER_RIGHT : Pos.CENTER_LEFT);
+    private String describeMedication(JsonNode medication) {
+        if (!medication.has("medication")) {
+            return "";
+        }
+        return "\n\n💊 " + capitalize(medication.path("medication").asText())
+            + " (" + medication.path("generic_name").asText() + ")\n"
+            + "• Uses: " + joinValues(medication.path("uses")) + "\n"
+            + "• Dosage: " + medication.path("dosage").asText() + "\n"
+            + "• Side effects: " + joinValues(medication.path("side_effects")) + "\n"
+            + "• Precautions: " + joinValues(medication.path("precautions")) + "\n"
+            + medication.path("disclaimer").asText();
+    }
 
-        HBox messageContainer = new HBox();
-        messageContainer.setSpacing(10);
-        messageContainer.setAlignment(isUser ? Pos.CENTER_RIGHT : Pos.CENTER_LEFT);
+    private String describeFirstAid(JsonNode firstAid) {
+        if (!firstAid.has("situation")) {
+            return "";
+        }
+        StringBuilder advice = new StringBuilder("\n\n🩹 First aid for ")
+            .append(firstAid.path("situation").asText()).append(":\n");
+        int step = 1;
+        for (JsonNode instruction : firstAid.path("steps")) {
+            advice.append(step++).append(". ").append(instruction.asText()).append("\n");
+        }
+        advice.append("Do not: ").append(joinValues(firstAid.path("do_not"))).append("\n")
+            .append(firstAid.path("emergency_call").asText());
+        return advice.toString();
+    }
 
-        if (!isUser) {
-            Label botIcon = new Label("🤖");
-            botIcon.setStyle("-fx-font-size: 16px;");
-            messageContainer.getChildren().add(botIcon);
+    private static String joinValues(JsonNode values) {
+        StringJoiner joined = new StringJoiner(", ");
+        for (JsonNode value : values) {
+            joined.add(value.asText().replace('_', ' '));
         }
+        return joined.toString();
+    }
 
-        VBox textContainer = new VBox();
-        textContainer.setSpacing(5);
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
 
-        Label messageLabel = new Label(message);
-        messageLabel.setWrapText(true);
-        messageLabel.setMaxWidth(300);
-        messageLabel.setPadding(new Insets(10));
-        messageLabel.getStyleClass().add(isUser ? "user-message" : "bot-message");
+    private void addUserMessage(String message) {
+        addMessage(new ChatMessage(message, true));
+    }
 
-        Label timeLabel = new Label(java.time.LocalTime.now().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm")));
-        timeLabel.setFont(Font.font("System", 10));
-        timeLabel.setTextFill(Color.valueOf("#9ca3af"));
+    private void addBotMessage(String message) {
+        addMessage(new ChatMessage(message, false));
+    }
 
-        textContainer.getChildren().addAll(messageLabel, timeLabel);
+    private void addMessage(ChatMessage message) {
+        chatHistory.add(message);
+        visibleMessages.add(message);
+        // New turns land at the bottom, so the oldest shown ones can go; they stay in chatHistory
+        int excess = visibleMessages.size() - MAX_VISIBLE_MESSAGES;
+        if (excess > 0) {
+            visibleMessages.remove(0, excess);
+            windowStart += excess;
+        }
+        scrollToBottom();
+    }
 
-        if (isUser) {
-            Label userIcon = new Label("👤");
-            userIcon.setStyle("-fx-font-size: 16px;");
-            messageContainer.getChildren().addAll(textContainer, userIcon);
-        } else {
-            messageContainer.getChildren().add(textContainer);
+    // Brings the previous page back from the history once the user reaches the top of the list
+    private void loadOlderMessages() {
+        olderMessagesRequested = false;
+        if (windowStart == 0) {
+            return;
         }
+        int from = Math.max(0, windowStart - HISTORY_PAGE_SIZE);
+        List<ChatMessage> older = chatHistory.range(from, windowStart);
+        visibleMessages.addAll(0, older);
+        windowStart = from;
+        chatList.scrollTo(older.size());
+    }
 
-        messageBox.getChildren().add(messageContainer);
-        return messageBox;
+    // Re-renders a message whose text changed, e.g. while a reply streams in
+    private void refreshMessage(ChatMessage message) {
+        int index = visibleMessages.lastIndexOf(message);
+        if (index >= 0) {
+            visibleMessages.set(index, message);
+        }
     }
 
     private void scrollToBottom() {
-        chatScrollPane.setVvalue(1.0);
+        chatList.scrollTo(visibleMessages.size() - 1);
     }
 
     private void clearChat() {
-        chatContainer.getChildren().clear();
+        if (activeReply != null) {
+            activeReply.cancel();
+            activeReply = null;
+        }
+        visibleMessages.clear();
         chatHistory.clear();
+        windowStart = 0;
         addBotMessage("Chat cleared. How can I help you today?");
     }
 
     private String generateAIResponse(String userMessage) {
-        String lowerMessage = userMessage.toLowerCase();
-        
-        // AI response logic based on user input
-        if (lowerMessage.contains("symptom") || lowerMessage.contains("pain") || lowerMessage.contains("fever")) {
-            return "I understand you're asking about symptoms. While I can provide general information, " +
-                   "it's important to consult with a healthcare provider for proper diagnosis. " +
-                   "Could you tell me more about your specific symptoms and their duration?";
+        return intents.respond(userMessage);
+    }
+
+    public VBox getAIMedicalBotView() {
+        return aiMedicalBotView;
+    }
+
+    // Renders one streamed answer into its bubble. Chunks may arrive on any thread; each animation
+    // frame applies everything that arrived since the previous one in a single text update.
+    private class StreamingReply extends AnimationTimer implements Flow.Subscriber<String> {
+        private final ChatMessage reply;
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder pending = new StringBuilder();
+        private volatile boolean done = false;
+        private Flow.Subscription subscription;
+        private boolean finished = false;
+
+        StreamingReply(ChatMessage reply) {
+            this.reply = reply;
         }
-        
-        if (lowerMessage.contains("medication") || lowerMessage.contains("medicine") || lowerMessage.contains("drug")) {
-            return "Medication safety is crucial. Always:\n" +
-                   "• Follow your doctor's prescription exactly\n" +
-                   "• Read the medication guide\n" +
-                   "• Be aware of potential side effects\n" +
-                   "• Don't share medications with others\n" +
-                   "• Store medications properly\n\n" +
-                   "For specific medication questions, consult your pharmacist or doctor.";
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
         }
-        
-        if (lowerMessage.contains("emergency") || lowerMessage.contains("urgent")) {
-            return "🚨 EMERGENCY SIGNS that require immediate medical attention:\n" +
-                   "• Chest pain or pressure\n" +
-                   "• Severe difficulty breathing\n" +
-                   "• Unconsciousness\n" +
-                   "• Severe bleeding\n" +
-                   "• Sudden severe headache\n" +
-                   "• Signs of stroke (FAST: Face, Arms, Speech, Time)\n\n" +
-                   "If you're experiencing any of these, call emergency services immediately!";
+
+        @Override
+        public void onNext(String chunk) {
+            synchronized (pending) {
+                pending.append(chunk);
+            }
         }
-        
-        if (lowerMessage.contains("first aid") || lowerMessage.contains("injury")) {
-            return "Basic First Aid Tips:\n" +
-                   "• For cuts: Clean with soap and water, apply pressure to stop bleeding\n" +
-                   "• For burns: Cool with running water for 10-20 minutes\n" +
-                   "• For sprains: RICE (Rest, Ice, Compression, Elevation)\n" +
-                   "• For choking: Perform Heimlich maneuver\n" +
-                   "• For unconscious person: Check breathing, call emergency services\n\n" +
-                   "Consider taking a certified first aid course for comprehensive training.";
+
+        @Override
+        public void onError(Throwable error) {
+            onNext("\n\n(The rest of this answer is unavailable right now.)");
+            done = true;
         }
-        
-        if (lowerMessage.contains("health") && lowerMessage.contains("tip")) {
-            return "General Health & Wellness Tips:\n" +
-                   "• Stay hydrated (8 glasses of water daily)\n" +
-                   "• Exercise regularly (150 minutes/week)\n" +
-                   "• Eat a balanced diet with fruits and vegetables\n" +
-                   "• Get 7-9 hours of sleep\n" +
-                   "• Manage stress through meditation or hobbies\n" +
-                   "• Regular health check-ups\n" +
-                   "• Avoid smoking and limit alcohol\n" +
-                   "• Practice good hygiene\n\n" +
-                   "Remember: Prevention is better than cure!";
+
+        @Override
+        public void onComplete() {
+            done = true;
+        }
+
+        @Override
+        public void handle(long now) {
+            // Read the flag first: once it is set, every chunk is already in pending
+            boolean complete = done;
+            applyPending();
+            if (complete) {
+                finish();
+            }
+        }
+
+        // Called on the FX thread when a newer message takes over
+        void cancel() {
+            if (finished) {
+                return;
+            }
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            boolean complete = done;
+            applyPending();
+            if (!complete) {
+                text.append(text.length() == 0 ? "(Cancelled)" : " …");
+                reply.setMessage(text.toString());
+                refreshMessage(reply);
+            }
+            finish();
+        }
+
+        private void applyPending() {
+            String chunk;
+            synchronized (pending) {
+                chunk = pending.toString();
+                pending.setLength(0);
+            }
+            if (!chunk.isEmpty()) {
+                text.append(chunk);
+                reply.setMessage(text.toString());
+                refreshMessage(reply);
+                scrollToBottom();
+            }
+        }
+
+        private void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            stop();
+            if (activeReply == this) {
+                activeReply = null;
+            }
         }
-        
-        // Default response
-        return "Thank you for your question. I'm here to provide general health information and guidance. " +
-               "For specific medical advice, diagnosis, or treatment, please consult with a qualified healthcare provider. " +
-               "Is there anything specific about your health that you'd like to discuss?";
     }
 
-    public VBox getAIMedicalBotView() {
-        return aiMedicalBotView;
+    // One bubble, updated in place as the list view recycles the cell
+    private class ChatMessageCell extends ListCell<ChatMessage> {
+        private final Label botIcon = new Label("🤖");
+        private final Label userIcon = new Label("👤");
+        private final Label messageLabel = new Label();
+        private final Label timeLabel = new Label();
+        private final VBox textContainer = new VBox(5);
+        private final HBox messageContainer = new HBox(10);
+
+        ChatMessageCell() {
+            botIcon.setStyle("-fx-font-size: 16px;");
+            userIcon.setStyle("-fx-font-size: 16px;");
+
+            messageLabel.setWrapText(true);
+            messageLabel.setMaxWidth(300);
+            messageLabel.setPadding(new Insets(10));
+
+            timeLabel.setFont(Font.font("System", 10));
+            timeLabel.setTextFill(Color.valueOf("#9ca3af"));
+
+            textContainer.getChildren().addAll(messageLabel, timeLabel);
+            messageContainer.getChildren().addAll(botIcon, textContainer, userIcon);
+        }
+
+        @Override
+        protected void updateItem(ChatMessage message, boolean empty) {
+            super.updateItem(message, empty);
+            if (empty || message == null) {
+                setGraphic(null);
+                return;
+            }
+
+            boolean isUser = message.isUser();
+            messageLabel.setText(message.getMessage());
+            messageLabel.getStyleClass().setAll("label", isUser ? "user-message" : "bot-message");
+            timeLabel.setText(TIME_FORMAT.format(Instant.ofEpochMilli(message.getTimestamp()).atZone(ZoneId.systemDefault())));
+            botIcon.setVisible(!isUser);
+            botIcon.setManaged(!isUser);
+            userIcon.setVisible(isUser);
+            userIcon.setManaged(isUser);
+            textContainer.setAlignment(isUser ? Pos.CENTER_RIGHT : Pos.CENTER_LEFT);
+            messageContainer.setAlignment(isUser ? Pos.CENTER_RIGHT : Pos.CENTER_LEFT);
+            setAlignment(isUser ? Pos.CENTER_RIGHT : Pos.CENTER_LEFT);
+            setGraphic(messageContainer);
+
+            // The first row came into view: fetch the page above it after this layout pass
+            if (getIndex() == 0 && windowStart > 0 && !olderMessagesRequested) {
+                olderMessagesRequested = true;
+                Platform.runLater(AIMedicalBotController.this::loadOlderMessages);
+            }
+        }
     }
 
     // Inner class for chat messages
-    private static class ChatMessage {
+    static class ChatMessage {
         private String message;
         private boolean isUser;
         private long timestamp;
 
         public ChatMessage(String message, boolean isUser) {
+            this(message, isUser, System.currentTimeMillis());
+        }
+
+        ChatMessage(String message, boolean isUser, long timestamp) {
             this.message = message;
             this.isUser = isUser;
-            this.timestamp = System.currentTimeMillis();
+            this.timestamp = timestamp;
         }
 
         public String getMessage() { return message; }
+        void setMessage(String message) { this.message = message; }
         public boolean isUser() { return isUser; }
         public long getTimestamp() { return timestamp; }
     }
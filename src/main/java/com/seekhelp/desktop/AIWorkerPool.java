@@ -0,0 +1,277 @@
+package com.seekhelp.desktop;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps warm "ai_integration.py worker" processes and talks newline-delimited JSON to them, so a
+// query costs a pipe round trip instead of interpreter startup. Requests are pipelined: each worker
+// takes new requests while earlier ones are in flight, and responses are matched back by id.
+// Workers that exit or stop answering health checks are restarted with backoff.
+// Settings: -Dseekhelp.ai.python, -Dseekhelp.ai.script, -Dseekhelp.ai.workers
+public class AIWorkerPool {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final long CALL_TIMEOUT_MILLIS = 5000;
+    private static final long PING_TIMEOUT_MILLIS = 2000;
+    private static final long HEALTH_CHECK_SECONDS = 15;
+    private static final int MAX_RESTART_DELAY_SECONDS = 30;
+    private static final long START_RETRY_MILLIS = 60_000;
+
+    private static AIWorkerPool instance;
+    // After a failed start, callers get null without another attempt until this time
+    private static long retryAfterMillis = 0;
+
+    private final List<String> command;
+    private final Worker[] workers;
+    private final AtomicLong nextId = new AtomicLong();
+    private final ScheduledExecutorService supervisor;
+    private volatile boolean closed = false;
+
+    private AIWorkerPool(List<String> command, int size) {
+        this.command = command;
+        this.supervisor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seekhelp-ai-supervisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers = new Worker[size];
+        for (int i = 0; i < size; i++) {
+            workers[i] = new Worker(i);
+            try {
+                workers[i].start();
+            } catch (IOException e) {
+                System.err.println("AI worker " + i + " failed to start: " + e.getMessage());
+                workers[i].scheduleRestart();
+            }
+        }
+        supervisor.scheduleWithFixedDelay(this::checkHealth, HEALTH_CHECK_SECONDS, HEALTH_CHECK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Starts the workers on first use; returns null when the script or a Python interpreter is missing.
+    // A failed start is retried at most once every START_RETRY_MILLIS.
+    public static synchronized AIWorkerPool getInstance() {
+        if (instance == null) {
+            if (System.currentTimeMillis() < retryAfterMillis) {
+                return null;
+            }
+            retryAfterMillis = System.currentTimeMillis() + START_RETRY_MILLIS;
+            Path script = Path.of(System.getProperty("seekhelp.ai.script", "ai_integration.py")).toAbsolutePath();
+            if (!Files.isRegularFile(script)) {
+                System.err.println("AI worker script not found: " + script);
+                return null;
+            }
+            String python = System.getProperty("seekhelp.ai.python",
+                System.getProperty("os.name", "").startsWith("Windows") ? "python" : "python3");
+            int size = Math.max(1, Integer.getInteger("seekhelp.ai.workers", 2));
+
+            AIWorkerPool pool = new AIWorkerPool(List.of(python, "-u", script.toString(), "worker"), size);
+            if (!pool.hasLiveWorker()) {
+                pool.close();
+                return null;
+            }
+            instance = pool;
+            retryAfterMillis = 0;
+        }
+        return instance;
+    }
+
+    // Called on application exit
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    // Sends a request to the least busy live worker; fails fast when none is running
+    public CompletableFuture<JsonNode> call(String method, Map<String, ?> params) {
+        Worker target = null;
+        for (Worker worker : workers) {
+            if (worker.alive && (target == null || worker.pending.size() < target.pending.size())) {
+                target = worker;
+            }
+        }
+        if (target == null) {
+            return CompletableFuture.failedFuture(new IOException("No AI worker is running"));
+        }
+        return target.send(method, params, CALL_TIMEOUT_MILLIS);
+    }
+
+    private boolean hasLiveWorker() {
+        for (Worker worker : workers) {
+            if (worker.alive) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkHealth() {
+        for (Worker worker : workers) {
+            if (!worker.alive) {
+                continue;
+            }
+            worker.send("ping", Map.of(), PING_TIMEOUT_MILLIS).whenComplete((result, error) -> {
+                if (error == null) {
+                    worker.crashes = 0;
+                } else if (worker.alive) {
+                    System.err.println("AI worker " + worker.slot + " failed its health check: " + error.getMessage());
+                    worker.stop();
+                    worker.scheduleRestart();
+                }
+            });
+        }
+    }
+
+    private void close() {
+        closed = true;
+        supervisor.shutdownNow();
+        for (Worker worker : workers) {
+            worker.stop();
+        }
+    }
+
+    private class Worker {
+        private final int slot;
+        private final Map<Long, CompletableFuture<JsonNode>> pending = new ConcurrentHashMap<>();
+        private Process process;
+        private BufferedWriter stdin;
+        private volatile boolean alive = false;
+        private volatile int crashes = 0;
+
+        Worker(int slot) {
+            this.slot = slot;
+        }
+
+        synchronized void start() throws IOException {
+            Process started = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+            process = started;
+            stdin = new BufferedWriter(new OutputStreamWriter(started.getOutputStream(), StandardCharsets.UTF_8));
+            alive = true;
+
+            Thread reader = new Thread(() -> readResponses(started), "seekhelp-ai-worker-" + slot);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        CompletableFuture<JsonNode> send(String method, Map<String, ?> params, long timeoutMillis) {
+            long id = nextId.incrementAndGet();
+            CompletableFuture<JsonNode> future = new CompletableFuture<>();
+            pending.put(id, future);
+            future.whenComplete((result, error) -> pending.remove(id));
+
+            ObjectNode request = JSON.createObjectNode();
+            request.put("id", id);
+            request.put("method", method);
+            request.set("params", JSON.valueToTree(params));
+            try {
+                synchronized (this) {
+                    if (!alive) {
+                        throw new IOException("AI worker " + slot + " is not running");
+                    }
+                    stdin.write(JSON.writeValueAsString(request));
+                    stdin.write('\n');
+                    stdin.flush();
+                }
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+                return future;
+            }
+            return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void readResponses(Process source) {
+            try (BufferedReader stdout = new BufferedReader(
+                    new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = stdout.readLine()) != null) {
+                    JsonNode response;
+                    try {
+                        response = JSON.readTree(line);
+                    } catch (IOException e) {
+                        System.err.println("AI worker " + slot + " sent an unreadable line: " + line);
+                        continue;
+                    }
+                    CompletableFuture<JsonNode> future = pending.get(response.path("id").asLong(-1));
+                    if (future == null) {
+                        continue;
+                    }
+                    if (response.has("error")) {
+                        future.completeExceptionally(new IOException(response.get("error").asText()));
+                    } else {
+                        future.complete(response.path("result"));
+                    }
+                }
+            } catch (IOException e) {
+                // Pipe closed; handled below like a normal exit
+            }
+            onExit(source);
+        }
+
+        private void onExit(Process source) {
+            synchronized (this) {
+                if (process != source || !alive) {
+                    return; // already stopped or replaced
+                }
+                alive = false;
+            }
+            failPending(new IOException("AI worker " + slot + " exited"));
+            if (!closed) {
+                System.err.println("AI worker " + slot + " exited unexpectedly; restarting");
+                scheduleRestart();
+            }
+        }
+
+        synchronized void stop() {
+            alive = false;
+            if (process != null) {
+                process.destroy();
+            }
+            failPending(new IOException("AI worker " + slot + " stopped"));
+        }
+
+        void scheduleRestart() {
+            if (closed) {
+                return;
+            }
+            int delay = Math.min(MAX_RESTART_DELAY_SECONDS, 1 << Math.min(crashes++, 5));
+            supervisor.schedule(() -> {
+                if (closed || alive) {
+                    return;
+                }
+                try {
+                    start();
+                } catch (IOException e) {
+                    System.err.println("AI worker " + slot + " failed to restart: " + e.getMessage());
+                    scheduleRestart();
+                }
+            }, delay, TimeUnit.SECONDS);
+        }
+
+        private void failPending(IOException error) {
+            for (CompletableFuture<JsonNode> future : pending.values()) {
+                future.completeExceptionally(error);
+            }
+        }
+    }
+}
@@ -21,6 +21,8 @@ public class AdminController {
     private TableView<HospitalData> hospitalsTable;
     private TableView<DonorData> donorsTable;
     private TableView<UserData> usersTable;
+    private Label pageTimesLabel;
+    private Label taskMetricsLabel;
 
     public AdminController(MainController mainController) {
         this.mainController = mainController;
@@ -131,10 +133,44 @@ public class AdminController {
         // System Status
         VBox systemStatus = createSystemStatusSection();
 
-        dashboard.getChildren().addAll(recentActivity, quickActions, systemStatus);
+        // Diagnostics
+        VBox diagnostics = createDiagnosticsSection();
+
+        dashboard.getChildren().addAll(recentActivity, quickActions, systemStatus, diagnostics);
         return dashboard;
     }
 
+    // Timings collected while the app runs; refreshed each time the dashboard is shown
+    private VBox createDiagnosticsSection() {
+        VBox section = new VBox();
+        section.setSpacing(10);
+
+        Label sectionTitle = new Label("🩺 Diagnostics");
+        sectionTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
+
+        pageTimesLabel = new Label();
+        pageTimesLabel.setFont(Font.font("System", 12));
+        pageTimesLabel.setTextFill(Color.valueOf("#6b7280"));
+        pageTimesLabel.setWrapText(true);
+
+        taskMetricsLabel = new Label();
+        taskMetricsLabel.setFont(Font.font("System", 12));
+        taskMetricsLabel.setTextFill(Color.valueOf("#6b7280"));
+
+        section.getChildren().addAll(sectionTitle, pageTimesLabel, taskMetricsLabel);
+        return section;
+    }
+
+    public void refreshDiagnostics() {
+        StringBuilder pageTimes = new StringBuilder("Page build times:");
+        for (Map.Entry<String, Long> entry : mainController.getPageRegistry().getConstructionTimes().entrySet()) {
+            pageTimes.append(String.format(" %s %.1f ms,", entry.getKey(), entry.getValue() / 1000.0));
+        }
+        pageTimes.setLength(pageTimes.length() - 1);
+        pageTimesLabel.setText(pageTimes.toString());
+        taskMetricsLabel.setText("Background tasks: " + mainController.getTaskScheduler().getMetrics());
+    }
+
     private VBox createRecentActivitySection() {
         VBox section = new VBox();
         section.setSpacing(15);
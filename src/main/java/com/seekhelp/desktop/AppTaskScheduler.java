@@ -0,0 +1,260 @@
+package com.seekhelp.desktop;
+
+import jakarta.annotation.PreDestroy;
+import javafx.application.Platform;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The one place controllers run background work and delays.
+// - submit: blocking work on a bounded pool of named daemon threads
+// - runLater: an FX action after a delay, without holding a thread while waiting
+// - repeat: an FX action at a fixed delay until cancelled, counted as running only while the action runs
+// Tasks belong to a page (the PageRegistry name) and are cancelled when the user leaves it; pass a
+// null page for work that must outlive navigation. Queued/running/completed counts are kept for metrics.
+@Component
+public class AppTaskScheduler {
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService timer;
+    private final Set<Task<?>> active = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    public AppTaskScheduler() {
+        int threads = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "seekhelp-task-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers.allowCoreThreadTimeOut(true);
+        ScheduledThreadPoolExecutor timerPool = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "seekhelp-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Cancelled delays (debounced searches, released cart holds) leave the queue at once, not at their deadline
+        timerPool.setRemoveOnCancelPolicy(true);
+        timer = timerPool;
+    }
+
+    // Runs blocking work off the FX thread; cancelling the returned future interrupts it if it has started
+    public <T> CompletableFuture<T> submit(String page, String name, Callable<T> work) {
+        Task<T> task = new Task<>(page, name);
+        workers.execute(() -> run(task, work));
+        return task.result;
+    }
+
+    // Runs blocking work after the delay, without holding a worker while waiting
+    public <T> CompletableFuture<T> submit(String page, String name, Duration delay, Callable<T> work) {
+        Task<T> task = new Task<>(page, name);
+        task.timer = timer.schedule(() -> workers.execute(() -> run(task, work)), delay.toMillis(), TimeUnit.MILLISECONDS);
+        return task.result;
+    }
+
+    private <T> void run(Task<T> task, Callable<T> work) {
+        Thread thread = Thread.currentThread();
+        if (!task.begin(thread)) {
+            return;
+        }
+        String threadName = thread.getName();
+        thread.setName(threadName + " [" + task.name + "]");
+        try {
+            task.result.complete(work.call());
+        } catch (Throwable e) {
+            task.result.completeExceptionally(e);
+        } finally {
+            task.release();
+            task.end();
+            // A cancel can only interrupt before release(), so this clears any interrupt meant for the task
+            Thread.interrupted();
+            thread.setName(threadName);
+        }
+    }
+
+    // Runs an FX action after the delay; cancelling before it fires means it never runs
+    public CompletableFuture<Void> runLater(String page, String name, Duration delay, Runnable fxAction) {
+        Task<Void> task = new Task<>(page, name);
+        task.timer = timer.schedule(() -> Platform.runLater(() -> {
+            if (!task.begin(null)) {
+                return;
+            }
+            try {
+                fxAction.run();
+                task.result.complete(null);
+            } catch (Throwable e) {
+                task.result.completeExceptionally(e);
+            } finally {
+                task.end();
+            }
+        }), delay.toMillis(), TimeUnit.MILLISECONDS);
+        return task.result;
+    }
+
+    // Runs an FX action every period until the returned future is cancelled or the action throws
+    public CompletableFuture<Void> repeat(String page, String name, Duration period, Runnable fxAction) {
+        Task<Void> task = new Task<>(page, name);
+        task.timer = timer.scheduleWithFixedDelay(() -> Platform.runLater(() -> {
+            if (task.result.isDone() || !task.begin(null)) {
+                return;
+            }
+            try {
+                fxAction.run();
+            } catch (Throwable e) {
+                task.result.completeExceptionally(e);
+            } finally {
+                task.idle();
+            }
+        }), period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+        return task.result;
+    }
+
+    // Called by MainController when navigation leaves a page
+    public void cancelPage(String page) {
+        if (page == null) {
+            return;
+        }
+        for (Task<?> task : active) {
+            if (page.equals(task.page)) {
+                task.result.cancel(true);
+            }
+        }
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(queued.get(), running.get(), completed.get(), failed.get(), cancelled.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private final class Task<T> {
+        private final String page;
+        private final String name;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private Thread runner; // guarded by this task
+        private volatile ScheduledFuture<?> timer;
+
+        Task(String page, String name) {
+            this.page = page;
+            this.name = name;
+            queued.incrementAndGet();
+            active.add(this);
+            result.whenComplete((value, error) -> finished(error));
+        }
+
+        // The runner is published before the task counts as running, under the lock cancel interrupts with
+        synchronized boolean begin(Thread thread) {
+            runner = thread;
+            if (!state.compareAndSet(QUEUED, RUNNING)) {
+                runner = null;
+                return false;
+            }
+            queued.decrementAndGet();
+            running.incrementAndGet();
+            return true;
+        }
+
+        // After this a cancel can no longer interrupt the thread, which may go on to run other tasks
+        synchronized void release() {
+            runner = null;
+        }
+
+        private synchronized void interruptRunner() {
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+
+        // Between runs a repeating task counts as queued again
+        void idle() {
+            if (state.compareAndSet(RUNNING, QUEUED)) {
+                running.decrementAndGet();
+                queued.incrementAndGet();
+            }
+        }
+
+        void end() {
+            if (state.compareAndSet(RUNNING, DONE)) {
+                running.decrementAndGet();
+            }
+        }
+
+        private void finished(Throwable error) {
+            active.remove(this);
+            ScheduledFuture<?> pendingTimer = timer;
+            if (pendingTimer != null) {
+                pendingTimer.cancel(false);
+            }
+            if (result.isCancelled()) {
+                cancelled.incrementAndGet();
+                if (state.compareAndSet(QUEUED, DONE)) {
+                    queued.decrementAndGet();
+                } else {
+                    interruptRunner();
+                    end();
+                }
+            } else if (error != null) {
+                failed.incrementAndGet();
+                end();
+                System.err.println("Task " + name + " failed: " + error.getMessage());
+            } else {
+                completed.incrementAndGet();
+            }
+        }
+    }
+
+    public static class Metrics {
+        private final int queued;
+        private final int running;
+        private final long completed;
+        private final long failed;
+        private final long cancelled;
+
+        Metrics(int queued, int running, long completed, long failed, long cancelled) {
+            this.queued = queued;
+            this.running = running;
+            this.completed = completed;
+            this.failed = failed;
+            this.cancelled = cancelled;
+        }
+
+        public int getQueued() { return queued; }
+        public int getRunning() { return running; }
+        public long getCompleted() { return completed; }
+        public long getFailed() { return failed; }
+        public long getCancelled() { return cancelled; }
+
+        @Override
+        public String toString() {
+            return queued + " queued, " + running + " running, " + completed + " completed, "
+                + failed + " failed, " + cancelled + " cancelled";
+        }
+    }
+}
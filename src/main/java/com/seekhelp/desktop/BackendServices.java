@@ -0,0 +1,38 @@
+package com.seekhelp.desktop;
+
+import javafx.application.Platform;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+@Component
+public class BackendServices {
+
+    private final CompletableFuture<ApplicationContext> backend = new CompletableFuture<>();
+
+    public void register(ApplicationContext context) {
+        backend.complete(context);
+    }
+
+    public void fail(Throwable error) {
+        backend.completeExceptionally(error);
+    }
+
+    public boolean isReady() {
+        return backend.isDone() && !backend.isCompletedExceptionally();
+    }
+
+    // Runs the callback on the FX thread once the backend context has finished starting
+    public void whenReady(Consumer<ApplicationContext> callback) {
+        backend.thenAccept(context -> Platform.runLater(() -> callback.accept(context)));
+    }
+
+    public <T> T getBean(Class<T> type) {
+        if (!isReady()) {
+            throw new IllegalStateException("Backend services are still starting");
+        }
+        return backend.join().getBean(type);
+    }
+}
@@ -0,0 +1,229 @@
+package com.seekhelp.desktop;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+// Source of bed-count changes. Every line of the stand-in feeds is "hospitalId,delta", e.g. "3,-2";
+// blank lines and lines starting with # are ignored.
+public interface BedAvailabilityFeed {
+
+    void start(Consumer<BedDelta> listener);
+
+    void stop();
+
+    // -Dseekhelp.beds.feed=file:<path> or socket:<port>; defaults to tailing ~/.seekhelp/bed-updates.log
+    static BedAvailabilityFeed fromSystemProperty() {
+        String spec = System.getProperty("seekhelp.beds.feed",
+            "file:" + Path.of(System.getProperty("user.home"), ".seekhelp", "bed-updates.log"));
+        if (spec.startsWith("socket:")) {
+            return new LoopbackSocketFeed(Integer.parseInt(spec.substring("socket:".length())));
+        }
+        return new FileTailFeed(Path.of(spec.startsWith("file:") ? spec.substring("file:".length()) : spec));
+    }
+
+    static BedDelta parse(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        String[] parts = trimmed.split(",");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            return new BedDelta(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    class BedDelta {
+        private final int hospitalId;
+        private final int change;
+
+        public BedDelta(int hospitalId, int change) {
+            this.hospitalId = hospitalId;
+            this.change = change;
+        }
+
+        public int getHospitalId() { return hospitalId; }
+        public int getChange() { return change; }
+    }
+
+    // Polls a local file for appended lines. Reading starts at the end of what is already there, so
+    // earlier updates are not replayed; only complete lines are consumed, so a line still being written
+    // is read once its newline arrives. A truncated file is read again from the start.
+    class FileTailFeed implements BedAvailabilityFeed {
+        private static final long POLL_MILLIS = 250;
+        private static final long MAX_BACKOFF_MILLIS = 10_000;
+        private static final int CHUNK_BYTES = 64 * 1024;
+
+        private final Path file;
+        private volatile boolean running;
+        private long offset = -1; // not yet positioned
+
+        public FileTailFeed(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public void start(Consumer<BedDelta> listener) {
+            running = true;
+            Thread thread = new Thread(() -> tail(listener), "seekhelp-bed-feed");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        // While reads keep failing the poll interval doubles up to MAX_BACKOFF_MILLIS, and the error
+        // is logged once per run of failures
+        private void tail(Consumer<BedDelta> listener) {
+            long delay = POLL_MILLIS;
+            boolean failing = false;
+            while (running) {
+                try {
+                    poll(listener);
+                    if (failing) {
+                        System.err.println("Bed feed reading again: " + file);
+                    }
+                    failing = false;
+                    delay = POLL_MILLIS;
+                } catch (IOException e) {
+                    if (!failing) {
+                        System.err.println("Bed feed read failed, retrying with backoff: " + e.getMessage());
+                    }
+                    failing = true;
+                    delay = Math.min(delay * 2, MAX_BACKOFF_MILLIS);
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void poll(Consumer<BedDelta> listener) throws IOException {
+            if (!Files.exists(file)) {
+                offset = 0; // whatever is written once it appears is new
+                return;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+                long length = raf.length();
+                if (offset < 0) {
+                    offset = startOfLastLine(raf, length);
+                }
+                if (length < offset) {
+                    offset = 0;
+                }
+                byte[] chunk = new byte[CHUNK_BYTES];
+                while (running && offset < length) {
+                    int size = (int) Math.min(CHUNK_BYTES, length - offset);
+                    raf.seek(offset);
+                    raf.readFully(chunk, 0, size);
+                    int end = lastNewline(chunk, size);
+                    if (end < 0) {
+                        if (size < CHUNK_BYTES) {
+                            return; // unfinished line; read it again next poll
+                        }
+                        offset += size; // a line longer than a chunk is not a feed line; skip it
+                        continue;
+                    }
+                    for (String line : new String(chunk, 0, end, StandardCharsets.UTF_8).split("\n")) {
+                        BedDelta delta = parse(line);
+                        if (delta != null) {
+                            listener.accept(delta);
+                        }
+                    }
+                    offset += end + 1;
+                }
+            }
+        }
+
+        // Just after the last newline, so an update being written at startup is still read whole
+        private static long startOfLastLine(RandomAccessFile raf, long length) throws IOException {
+            int size = (int) Math.min(CHUNK_BYTES, length);
+            byte[] tail = new byte[size];
+            raf.seek(length - size);
+            raf.readFully(tail);
+            int end = lastNewline(tail, size);
+            return end < 0 ? (size == length ? 0 : length) : length - size + end + 1;
+        }
+
+        private static int lastNewline(byte[] bytes, int size) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (bytes[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+    }
+
+    // Accepts line-oriented connections on a loopback port, e.g. from a hospital integration bridge
+    class LoopbackSocketFeed implements BedAvailabilityFeed {
+        private final int port;
+        private ServerSocket serverSocket;
+
+        public LoopbackSocketFeed(int port) {
+            this.port = port;
+        }
+
+        @Override
+        public void start(Consumer<BedDelta> listener) {
+            try {
+                serverSocket = new ServerSocket(port, 4, InetAddress.getLoopbackAddress());
+            } catch (IOException e) {
+                System.err.println("Bed feed could not listen on port " + port + ": " + e.getMessage());
+                return;
+            }
+            Thread thread = new Thread(() -> accept(listener), "seekhelp-bed-feed");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void accept(Consumer<BedDelta> listener) {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept();
+                     BufferedReader reader = new BufferedReader(
+                         new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        BedDelta delta = parse(line);
+                        if (delta != null) {
+                            listener.accept(delta);
+                        }
+                    }
+                } catch (IOException e) {
+                    if (!serverSocket.isClosed()) {
+                        System.err.println("Bed feed connection failed: " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void stop() {
+            try {
+                if (serverSocket != null) {
+                    serverSocket.close();
+                }
+            } catch (IOException e) {
+                System.err.println("Bed feed close failed: " + e.getMessage());
+            }
+        }
+    }
+}
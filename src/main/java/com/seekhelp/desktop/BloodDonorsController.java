@@ -1,5 +1,6 @@
 package com.seekhelp.desktop;
 
+import javafx.collections.ObservableListBase;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -9,9 +10,11 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import org.kordamp.ikonli.javafx.FontIcon;
 
+import java.time.Duration;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 public class BloodDonorsController {
 
@@ -20,11 +23,24 @@ public class BloodDonorsController {
     private TextField searchField;
     private ComboBox<String> bloodTypeCombo;
     private ComboBox<String> locationCombo;
-    private VBox donorsContainer;
+    private CheckBox compatibleCheckBox;
+    private Label resultsLabel;
+    private ListView<Integer> donorGrid;
+    private final RowIndexList donorRows = new RowIndexList();
     private List<Donor> allDonors;
+    private DonorIndex donorIndex;
+    private BloodMatcher bloodMatcher;
+    private final SearchPipeline<DonorQuery, DonorResults> donorSearch;
+    private List<Donor> displayedDonors = new ArrayList<>();
+    private boolean showDonorDetails;
+
+    private static final int CARDS_PER_ROW = 3;
+    private static final int MAX_COMPATIBLE_MATCHES = 100;
 
     public BloodDonorsController(MainController mainController) {
         this.mainController = mainController;
+        donorSearch = new SearchPipeline<>(mainController.getTaskScheduler(), "donor-search",
+            Duration.ofMillis(200), this::searchDonors, DonorQuery::narrows, this::showResults);
         initializeBloodDonorsView();
         loadSampleData();
     }
@@ -41,16 +57,24 @@ public class BloodDonorsController {
         // Search and filter controls
         HBox controls = createControls();
 
-        // Donors container
-        donorsContainer = new VBox();
-        donorsContainer.setSpacing(15);
+        // Donor grid: one virtualized row of cards per list cell, so only visible cards exist
+        donorGrid = new ListView<>(donorRows);
+        donorGrid.getStyleClass().add("donor-grid");
+        donorGrid.setFixedCellSize(220);
+        donorGrid.setFocusTraversable(false);
+        donorGrid.setCellFactory(list -> new DonorRowCell());
+
+        Label noResults = new Label("No donors found matching your criteria.");
+        noResults.setFont(Font.font("System", 16));
+        noResults.setTextFill(Color.valueOf("#6b7280"));
+        donorGrid.setPlaceholder(noResults);
+        VBox.setVgrow(donorGrid, Priority.ALWAYS);
 
-        ScrollPane scrollPane = new ScrollPane(donorsContainer);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        resultsLabel = new Label();
+        resultsLabel.setFont(Font.font("System", 12));
+        resultsLabel.setTextFill(Color.valueOf("#6b7280"));
 
-        bloodDonorsView.getChildren().addAll(header, controls, scrollPane);
+        bloodDonorsView.getChildren().addAll(header, controls, resultsLabel, donorGrid);
     }
 
     private VBox createHeader() {
@@ -115,15 +139,20 @@ public class BloodDonorsController {
         searchField.setPrefWidth(200);
         searchField.setDisable(!isDoctorUser());
 
+        // Compatible matching treats the blood type as the patient's and the location as where they are
+        compatibleCheckBox = new CheckBox("Include compatible donors");
+
         // Add event listeners
+        compatibleCheckBox.setOnAction(e -> filterDonors());
         bloodTypeCombo.setOnAction(e -> filterDonors());
         locationCombo.setOnAction(e -> filterDonors());
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> filterDonors());
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> donorSearch.submit(currentQuery()));
 
         controls.getChildren().addAll(
             bloodTypeLabel, bloodTypeCombo,
             locationLabel, locationCombo,
-            searchLabel, searchField
+            searchLabel, searchField,
+            compatibleCheckBox
         );
 
         return controls;
@@ -131,9 +160,11 @@ public class BloodDonorsController {
 
     private boolean isDoctorUser() {
         // Check if current user is a doctor or admin
-        return mainController.isAdmin() || 
-               mainController.getCurrentUser().toLowerCase().contains("doctor") ||
-               mainController.getCurrentUser().toLowerCase().contains("dr.");
+        if (mainController.isAdmin()) {
+            return true;
+        }
+        String user = mainController.getCurrentUser().toLowerCase();
+        return user.contains("doctor") || user.contains("dr.");
     }
 
     private void loadSampleData() {
@@ -148,127 +179,200 @@ public class BloodDonorsController {
         allDonors.add(new Donor(7, "Rajesh Verma", "O-", "Delhi", "+91-9876543216", "2024-01-08", "rajesh@email.com"));
         allDonors.add(new Donor(8, "Anjali Gupta", "AB-", "Bangalore", "+91-9876543217", "2024-01-14", "anjali@email.com"));
 
-        displayDonors(allDonors);
+        donorIndex = new DonorIndex(allDonors);
+        bloodMatcher = new BloodMatcher(allDonors);
+        filterDonors();
     }
 
     private void filterDonors() {
-        String searchTerm = searchField.getText().toLowerCase();
+        donorSearch.submitNow(currentQuery());
+    }
+
+    private DonorQuery currentQuery() {
         String selectedBloodType = bloodTypeCombo.getValue();
         String selectedLocation = locationCombo.getValue();
-
-        List<Donor> filteredDonors = allDonors.stream()
-            .filter(donor -> {
-                boolean matchesSearch = searchTerm.isEmpty() || 
-                    (isDoctorUser() && donor.getName().toLowerCase().contains(searchTerm));
-                boolean matchesBloodType = "All Blood Types".equals(selectedBloodType) || 
-                    donor.getBloodType().equals(selectedBloodType);
-                boolean matchesLocation = "All Locations".equals(selectedLocation) || 
-                    donor.getLocation().equals(selectedLocation);
-                
-                return matchesSearch && matchesBloodType && matchesLocation;
-            })
-            .collect(Collectors.toList());
-
-        displayDonors(filteredDonors);
+        return new DonorQuery(
+            DonorIndex.normalize(searchField.getText()),
+            "All Blood Types".equals(selectedBloodType) ? null : selectedBloodType,
+            "All Locations".equals(selectedLocation) ? null : selectedLocation,
+            compatibleCheckBox.isSelected(),
+            isDoctorUser()
+        );
     }
 
-    private void displayDonors(List<Donor> donors) {
-        donorsContainer.getChildren().clear();
-
-        if (donors.isEmpty()) {
-            Label noResults = new Label("No donors found matching your criteria.");
-            noResults.setFont(Font.font("System", 16));
-            noResults.setTextFill(Color.valueOf("#6b7280"));
-            noResults.setAlignment(Pos.CENTER);
-            donorsContainer.getChildren().add(noResults);
-            return;
+    // Runs on the search thread; the index and matcher are read-only once built
+    private DonorResults searchDonors(DonorQuery query, DonorResults previous) {
+        // Name search is restricted to doctors; anyone else searching by name gets no matches
+        if (!query.searchTerm.isEmpty() && !query.doctor) {
+            return new DonorResults(new ArrayList<>(), "0 donors found");
         }
 
-        // Create grid layout
-        GridPane grid = new GridPane();
-        grid.setHgap(20);
-        grid.setVgap(20);
+        if (query.isCompatibleMatch()) {
+            return findCompatibleDonors(query);
+        }
 
-        for (int i = 0; i < donors.size(); i++) {
-            Donor donor = donors.get(i);
-            VBox donorCard = createDonorCard(donor);
-            grid.add(donorCard, i % 3, i / 3);
+        List<Donor> filteredDonors;
+        if (previous != null) {
+            // The new term extends the previous one, so only the previous matches can still match
+            filteredDonors = donorIndex.refine(previous.donors, query.searchTerm);
+        } else {
+            filteredDonors = donorIndex.search(query.searchTerm, query.bloodType, query.location);
         }
+        return new DonorResults(filteredDonors, filteredDonors.size() + " donors found");
+    }
 
-        donorsContainer.getChildren().add(grid);
+    private DonorResults findCompatibleDonors(DonorQuery query) {
+        List<BloodMatcher.Match> matches = bloodMatcher.findMatches(
+            query.bloodType, query.location, donorIndex.nameMatches(query.searchTerm), MAX_COMPATIBLE_MATCHES);
+
+        List<Donor> rankedDonors = new ArrayList<>(matches.size());
+        long eligible = 0;
+        for (BloodMatcher.Match match : matches) {
+            rankedDonors.add(match.getDonor());
+            if (match.isEligible()) {
+                eligible++;
+            }
+        }
+
+        return new DonorResults(rankedDonors, String.format(
+            "Top %d donors compatible with %s (%d eligible to donate now) - eligible and nearest%s first",
+            rankedDonors.size(), query.bloodType, eligible, query.location == null ? "" : " to " + query.location));
     }
 
-    private VBox createDonorCard(Donor donor) {
-        VBox card = new VBox();
-        card.getStyleClass().add("donor-card");
-        card.setPadding(new Insets(20));
-        card.setSpacing(10);
-        card.setPrefWidth(300);
-        card.setPrefHeight(200);
-
-        // Header with name and blood type
-        HBox header = new HBox();
-        header.setAlignment(Pos.CENTER_LEFT);
-        header.setSpacing(10);
+    private void showResults(DonorResults results) {
+        resultsLabel.setText(results.summary);
+        displayDonors(results.donors);
+    }
 
-        Label bloodIcon = new Label("🩸");
-        bloodIcon.setStyle("-fx-font-size: 24px;");
+    private void displayDonors(List<Donor> donors) {
+        displayedDonors = donors;
+        showDonorDetails = isDoctorUser();
 
-        // Show name only for doctors
-        Label nameLabel;
-        if (isDoctorUser()) {
-            nameLabel = new Label(donor.getName());
-        } else {
-            nameLabel = new Label("Donor ID: " + donor.getId());
-        }
-        nameLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
+        // Resizing the row list only adds or trims rows at the tail, so the scroll position survives
+        donorRows.setSize((donors.size() + CARDS_PER_ROW - 1) / CARDS_PER_ROW);
+        donorGrid.refresh();
+    }
 
-        Label bloodTypeLabel = new Label(donor.getBloodType());
-        bloodTypeLabel.getStyleClass().add("blood-type-badge");
+    private class DonorRowCell extends ListCell<Integer> {
+        private final HBox row = new HBox(20);
+        private final DonorCard[] cards = new DonorCard[CARDS_PER_ROW];
 
-        header.getChildren().addAll(bloodIcon, nameLabel, bloodTypeLabel);
+        DonorRowCell() {
+            for (int i = 0; i < CARDS_PER_ROW; i++) {
+                cards[i] = new DonorCard();
+                row.getChildren().add(cards[i].getCard());
+            }
+            setText(null);
+        }
 
-        // Details
-        VBox details = new VBox();
-        details.setSpacing(5);
+        @Override
+        protected void updateItem(Integer rowIndex, boolean empty) {
+            super.updateItem(rowIndex, empty);
+            if (empty || rowIndex == null) {
+                setGraphic(null);
+                return;
+            }
+            for (int i = 0; i < CARDS_PER_ROW; i++) {
+                int donorIndex = rowIndex * CARDS_PER_ROW + i;
+                if (donorIndex < displayedDonors.size()) {
+                    cards[i].update(displayedDonors.get(donorIndex), showDonorDetails);
+                } else {
+                    cards[i].clear();
+                }
+            }
+            setGraphic(row);
+        }
+    }
 
-        // Always show location and last donation
-        addDetailRow(details, "Location:", donor.getLocation());
-        addDetailRow(details, "Last Donation:", donor.getLastDonation());
+    // Reusable card; the nodes are built once per cell and only their text changes as rows scroll
+    private class DonorCard {
+        private final VBox card = new VBox();
+        private final Label nameLabel = new Label();
+        private final Label bloodTypeLabel = new Label();
+        private final Label locationValue;
+        private final Label lastDonationValue;
+        private final Label contactValue;
+        private final Label emailValue;
+        private final Button actionButton = new Button();
+        private Donor donor;
+
+        DonorCard() {
+            card.getStyleClass().add("donor-card");
+            card.setPadding(new Insets(20));
+            card.setSpacing(10);
+            card.setPrefWidth(300);
+            card.setPrefHeight(200);
+
+            // Header with name and blood type
+            HBox header = new HBox();
+            header.setAlignment(Pos.CENTER_LEFT);
+            header.setSpacing(10);
+
+            Label bloodIcon = new Label("🩸");
+            bloodIcon.setStyle("-fx-font-size: 24px;");
+            nameLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
+            bloodTypeLabel.getStyleClass().add("blood-type-badge");
+            header.getChildren().addAll(bloodIcon, nameLabel, bloodTypeLabel);
+
+            // Details
+            VBox details = new VBox();
+            details.setSpacing(5);
+            locationValue = addDetailRow(details, "Location:");
+            lastDonationValue = addDetailRow(details, "Last Donation:");
+            contactValue = addDetailRow(details, "Contact:");
+            emailValue = addDetailRow(details, "Email:");
+
+            actionButton.setOnAction(e -> handleAction());
+
+            card.getChildren().addAll(header, details, actionButton);
+        }
 
-        // Show contact details only for doctors
-        if (isDoctorUser()) {
-            addDetailRow(details, "Contact:", donor.getContactNumber());
-            addDetailRow(details, "Email:", donor.getEmail());
-        } else {
-            addDetailRow(details, "Contact:", "🔒 Contact info hidden");
-            addDetailRow(details, "Email:", "🔒 Email hidden");
+        void update(Donor donor, boolean doctor) {
+            this.donor = donor;
+            card.setVisible(true);
+
+            // Show name and contact details only for doctors
+            nameLabel.setText(doctor ? donor.getName() : "Donor ID: " + donor.getId());
+            bloodTypeLabel.setText(donor.getBloodType());
+            locationValue.setText(donor.getLocation());
+            lastDonationValue.setText(donor.getLastDonation());
+            contactValue.setText(doctor ? donor.getContactNumber() : "🔒 Contact info hidden");
+            emailValue.setText(doctor ? donor.getEmail() : "🔒 Email hidden");
+
+            if (doctor) {
+                actionButton.setText("📞 Contact Donor");
+                actionButton.getStyleClass().setAll("button", "contact-button");
+            } else {
+                actionButton.setText("🔐 Request Contact (Doctors Only)");
+                actionButton.getStyleClass().setAll("button", "secondary-button");
+            }
         }
 
-        // Contact button (only for doctors)
-        if (isDoctorUser()) {
-            Button contactButton = new Button("📞 Contact Donor");
-            contactButton.getStyleClass().add("contact-button");
-            contactButton.setOnAction(e -> {
+        void clear() {
+            donor = null;
+            card.setVisible(false);
+        }
+
+        private void handleAction() {
+            if (donor == null) {
+                return;
+            }
+            if (showDonorDetails) {
                 mainController.showNotification("Contact", 
                     "Contacting " + donor.getName() + " at " + donor.getContactNumber());
-            });
-            card.getChildren().addAll(header, details, contactButton);
-        } else {
-            Button requestContactButton = new Button("🔐 Request Contact (Doctors Only)");
-            requestContactButton.getStyleClass().add("secondary-button");
-            requestContactButton.setOnAction(e -> {
+            } else {
                 mainController.showNotification("Access Restricted", 
                     "Only authorized medical professionals can access donor contact information. " +
                     "Please contact your hospital administrator for access.");
-            });
-            card.getChildren().addAll(header, details, requestContactButton);
+            }
         }
 
-        return card;
+        VBox getCard() {
+            return card;
+        }
     }
 
-    private void addDetailRow(VBox container, String label, String value) {
+    private Label addDetailRow(VBox container, String label) {
         HBox row = new HBox();
         row.setSpacing(10);
         row.setAlignment(Pos.CENTER_LEFT);
@@ -278,12 +382,96 @@ public class BloodDonorsController {
         labelNode.setTextFill(Color.valueOf("#6b7280"));
         labelNode.setPrefWidth(80);
 
-        Label valueNode = new Label(value);
+        Label valueNode = new Label();
         valueNode.setFont(Font.font("System", 12));
         valueNode.setTextFill(Color.valueOf("#1f2937"));
 
         row.getChildren().addAll(labelNode, valueNode);
         container.getChildren().add(row);
+        return valueNode;
+    }
+
+    private static class DonorQuery {
+        private final String searchTerm;
+        private final String bloodType;
+        private final String location;
+        private final boolean compatible;
+        private final boolean doctor;
+
+        DonorQuery(String searchTerm, String bloodType, String location, boolean compatible, boolean doctor) {
+            this.searchTerm = searchTerm;
+            this.bloodType = bloodType;
+            this.location = location;
+            this.compatible = compatible;
+            this.doctor = doctor;
+        }
+
+        boolean isCompatibleMatch() {
+            return compatible && bloodType != null;
+        }
+
+        // Ranked top-K results are not closed under narrowing, so only plain filters refine
+        boolean narrows(DonorQuery previous) {
+            return !isCompatibleMatch() && !previous.isCompatibleMatch()
+                && doctor == previous.doctor
+                && Objects.equals(bloodType, previous.bloodType)
+                && Objects.equals(location, previous.location)
+                && !previous.searchTerm.isEmpty()
+                && searchTerm.startsWith(previous.searchTerm);
+        }
+    }
+
+    private static class DonorResults {
+        private final List<Donor> donors;
+        private final String summary;
+
+        DonorResults(List<Donor> donors, String summary) {
+            this.donors = donors;
+            this.summary = summary;
+        }
+    }
+
+    // Row indices 0..size-1 generated on demand, so resizing is O(1) whatever the result count
+    private static class RowIndexList extends ObservableListBase<Integer> {
+        private int size;
+
+        void setSize(int newSize) {
+            int oldSize = size;
+            if (newSize == oldSize) {
+                return;
+            }
+            size = newSize;
+            beginChange();
+            if (newSize > oldSize) {
+                nextAdd(oldSize, newSize);
+            } else {
+                nextRemove(newSize, new AbstractList<Integer>() {
+                    @Override
+                    public Integer get(int index) {
+                        return newSize + index;
+                    }
+
+                    @Override
+                    public int size() {
+                        return oldSize - newSize;
+                    }
+                });
+            }
+            endChange();
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return index;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 
     public VBox getBloodDonorsView() {
@@ -291,7 +479,7 @@ public class BloodDonorsController {
     }
 
     // Inner class for donor data
-    private static class Donor {
+    static class Donor {
         private int id;
         private String name;
         private String bloodType;
@@ -0,0 +1,162 @@
+package com.seekhelp.desktop;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class BloodMatcher {
+
+    public static final String[] BLOOD_TYPES = {"O-", "O+", "A-", "A+", "B-", "B+", "AB-", "AB+"};
+
+    // Minimum gap between whole blood donations under NBTC guidelines
+    public static final int DONATION_INTERVAL_DAYS = 90;
+
+    // COMPATIBLE_DONORS[recipient] has bit d set when blood type d can donate to the recipient
+    private static final int[] COMPATIBLE_DONORS = new int[BLOOD_TYPES.length];
+
+    // Eligible donors first, then nearest, then exact type to spare universal donors
+    private static final Comparator<Match> BEST_FIRST = Comparator
+        .comparing((Match match) -> !match.eligible)
+        .thenComparingDouble(match -> match.distanceKm)
+        .thenComparing(match -> !match.exactMatch);
+
+    static {
+        for (int recipient = 0; recipient < BLOOD_TYPES.length; recipient++) {
+            for (int donor = 0; donor < BLOOD_TYPES.length; donor++) {
+                if (canDonate(BLOOD_TYPES[donor], BLOOD_TYPES[recipient])) {
+                    COMPATIBLE_DONORS[recipient] |= 1 << donor;
+                }
+            }
+        }
+    }
+
+    private final List<BloodDonorsController.Donor> donors;
+    private final byte[] bloodType;
+    private final String[] location;
+    private final long[] lastDonationDay;
+
+    public BloodMatcher(List<BloodDonorsController.Donor> donors) {
+        this.donors = new ArrayList<>(donors);
+        int size = donors.size();
+        bloodType = new byte[size];
+        location = new String[size];
+        lastDonationDay = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            BloodDonorsController.Donor donor = donors.get(i);
+            bloodType[i] = (byte) typeIndex(donor.getBloodType());
+            location[i] = donor.getLocation();
+            lastDonationDay[i] = parseDay(donor.getLastDonation());
+        }
+    }
+
+    private static boolean canDonate(String donorType, String recipientType) {
+        String donorAbo = donorType.substring(0, donorType.length() - 1);
+        String recipientAbo = recipientType.substring(0, recipientType.length() - 1);
+        boolean aboCompatible = donorAbo.equals("O") || donorAbo.equals(recipientAbo) || recipientAbo.equals("AB");
+        boolean rhCompatible = donorType.endsWith("-") || recipientType.endsWith("+");
+        return aboCompatible && rhCompatible;
+    }
+
+    public static int typeIndex(String type) {
+        for (int i = 0; i < BLOOD_TYPES.length; i++) {
+            if (BLOOD_TYPES[i].equals(type)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static boolean isCompatible(String donorType, String recipientType) {
+        int donor = typeIndex(donorType);
+        int recipient = typeIndex(recipientType);
+        return donor >= 0 && recipient >= 0 && (COMPATIBLE_DONORS[recipient] & (1 << donor)) != 0;
+    }
+
+    private static long parseDay(String date) {
+        try {
+            return LocalDate.parse(date).toEpochDay();
+        } catch (DateTimeParseException | NullPointerException e) {
+            // Unknown history is treated as long enough ago to donate
+            return Long.MIN_VALUE / 2;
+        }
+    }
+
+    // Best matches first: eligible donors, then nearest, then exact type to spare universal donors.
+    // allowed restricts the candidates (null for all); nearLocation may be null when unknown.
+    // A donor whose distance is unknown sorts after every donor at a known distance.
+    public List<Match> findMatches(String recipientType, String nearLocation, BitSet allowed, int limit) {
+        int recipient = typeIndex(recipientType);
+        if (recipient < 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        int compatibleMask = COMPATIBLE_DONORS[recipient];
+        double[] origin = GeoUtils.lookupCity(nearLocation);
+        long today = LocalDate.now().toEpochDay();
+
+        // Bounded heap, worst kept match on top so it is evicted first
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        for (int i = 0; i < bloodType.length; i++) {
+            if (bloodType[i] < 0 || (compatibleMask & (1 << bloodType[i])) == 0) {
+                continue;
+            }
+            if (allowed != null && !allowed.get(i)) {
+                continue;
+            }
+
+            double distance = distanceKm(origin, location[i]);
+            long daysSince = today - lastDonationDay[i];
+            boolean eligible = daysSince >= DONATION_INTERVAL_DAYS;
+            boolean exact = bloodType[i] == recipient;
+
+            Match match = new Match(donors.get(i), distance, daysSince, eligible, exact);
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (BEST_FIRST.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(BEST_FIRST);
+        return matches;
+    }
+
+    // Infinite when either city is unknown
+    private static double distanceKm(double[] origin, String city) {
+        double[] target = GeoUtils.lookupCity(city);
+        if (origin == null || target == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return GeoUtils.haversineKm(origin[0], origin[1], target[0], target[1]);
+    }
+
+    public static class Match {
+        private final BloodDonorsController.Donor donor;
+        private final double distanceKm;
+        private final long daysSinceDonation;
+        private final boolean eligible;
+        private final boolean exactMatch;
+
+        private Match(BloodDonorsController.Donor donor, double distanceKm, long daysSinceDonation,
+                      boolean eligible, boolean exactMatch) {
+            this.donor = donor;
+            this.distanceKm = distanceKm;
+            this.daysSinceDonation = daysSinceDonation;
+            this.eligible = eligible;
+            this.exactMatch = exactMatch;
+        }
+
+        public BloodDonorsController.Donor getDonor() { return donor; }
+        // Double.POSITIVE_INFINITY when the donor's or the recipient's city is unknown
+        public double getDistanceKm() { return distanceKm; }
+        public long getDaysSinceDonation() { return daysSinceDonation; }
+        public boolean isEligible() { return eligible; }
+        public boolean isExactMatch() { return exactMatch; }
+    }
+}
@@ -0,0 +1,128 @@
+package com.seekhelp.desktop;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Chat turns of one session, addressed by position. Only the newest turns stay in memory, in a ring
+// buffer; older ones are spilled to a private temp file and read back when the user scrolls up.
+// The file is deleted when the chat is cleared or the application exits.
+class ChatHistory {
+
+    private final AIMedicalBotController.ChatMessage[] ring;
+    private int ringStart = 0;
+    private int ringSize = 0;
+
+    private RandomAccessFile spill;
+    private Path spillPath;
+    private long[] spillOffsets = new long[64];
+    private int spilledCount = 0;
+
+    ChatHistory(int inMemoryCapacity) {
+        this.ring = new AIMedicalBotController.ChatMessage[inMemoryCapacity];
+    }
+
+    int size() {
+        return spilledCount + ringSize;
+    }
+
+    void add(AIMedicalBotController.ChatMessage message) {
+        if (ringSize == ring.length) {
+            spillOldest();
+        }
+        ring[(ringStart + ringSize) % ring.length] = message;
+        ringSize++;
+    }
+
+    AIMedicalBotController.ChatMessage get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index >= spilledCount) {
+            return ring[(ringStart + index - spilledCount) % ring.length];
+        }
+        return readSpilled(index);
+    }
+
+    // Messages [from, to), e.g. the page above what is currently shown
+    List<AIMedicalBotController.ChatMessage> range(int from, int to) {
+        List<AIMedicalBotController.ChatMessage> messages = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            messages.add(get(i));
+        }
+        return messages;
+    }
+
+    void clear() {
+        Arrays.fill(ring, null);
+        ringStart = 0;
+        ringSize = 0;
+        spilledCount = 0;
+        closeSpill();
+    }
+
+    private void spillOldest() {
+        AIMedicalBotController.ChatMessage oldest = ring[ringStart];
+        if (spilledCount == spillOffsets.length) {
+            spillOffsets = Arrays.copyOf(spillOffsets, spillOffsets.length * 2);
+        }
+        try {
+            if (spill == null) {
+                spillPath = Files.createTempFile("seekhelp-chat", ".log");
+                spillPath.toFile().deleteOnExit();
+                spill = new RandomAccessFile(spillPath.toFile(), "rw");
+            }
+            long offset = spill.length();
+            byte[] text = oldest.getMessage().getBytes(StandardCharsets.UTF_8);
+            spill.seek(offset);
+            spill.writeLong(oldest.getTimestamp());
+            spill.writeBoolean(oldest.isUser());
+            spill.writeInt(text.length);
+            spill.write(text);
+            spillOffsets[spilledCount] = offset;
+        } catch (IOException e) {
+            // Drop the turn rather than growing memory without bound
+            System.err.println("Failed to spill chat history: " + e.getMessage());
+            spillOffsets[spilledCount] = -1;
+        }
+        spilledCount++;
+        ring[ringStart] = null;
+        ringStart = (ringStart + 1) % ring.length;
+        ringSize--;
+    }
+
+    private AIMedicalBotController.ChatMessage readSpilled(int index) {
+        long offset = spillOffsets[index];
+        if (spill != null && offset >= 0) {
+            try {
+                spill.seek(offset);
+                long timestamp = spill.readLong();
+                boolean user = spill.readBoolean();
+                byte[] text = new byte[spill.readInt()];
+                spill.readFully(text);
+                return new AIMedicalBotController.ChatMessage(new String(text, StandardCharsets.UTF_8), user, timestamp);
+            } catch (IOException e) {
+                System.err.println("Failed to read chat history: " + e.getMessage());
+            }
+        }
+        return new AIMedicalBotController.ChatMessage("(This message is no longer available)", false, 0);
+    }
+
+    private void closeSpill() {
+        if (spill != null) {
+            try {
+                spill.close();
+                Files.deleteIfExists(spillPath);
+            } catch (IOException e) {
+                System.err.println("Failed to remove chat history file: " + e.getMessage());
+            }
+            spill = null;
+            spillPath = null;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.seekhelp.desktop;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+// One chat reply delivered in chunks. The producer starts when the (single) subscriber arrives and
+// may emit from any thread; chunks are buffered until the subscriber requests them. Once the
+// subscriber cancels, further chunks are dropped and isCancelled() tells the producer to stop.
+public class ChatResponseStream implements Flow.Publisher<String> {
+
+    private final Consumer<ChatResponseStream> producer;
+    private final Queue<String> buffer = new ArrayDeque<>();
+    private Flow.Subscriber<? super String> subscriber;
+    private long demand = 0;
+    private boolean completed = false;
+    private Throwable failure;
+    private boolean terminated = false;
+    private volatile boolean cancelled = false;
+    private boolean draining = false;
+
+    public ChatResponseStream(Consumer<ChatResponseStream> producer) {
+        this.producer = producer;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super String> subscriber) {
+        synchronized (this) {
+            if (this.subscriber != null) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override public void request(long n) { }
+                    @Override public void cancel() { }
+                });
+                subscriber.onError(new IllegalStateException("A chat response can only be streamed once"));
+                return;
+            }
+            this.subscriber = subscriber;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("Demand must be positive: " + n));
+                    return;
+                }
+                synchronized (ChatResponseStream.this) {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                synchronized (ChatResponseStream.this) {
+                    buffer.clear();
+                }
+            }
+        });
+        producer.accept(this);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void emit(String chunk) {
+        if (cancelled || chunk.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            buffer.add(chunk);
+        }
+        drain();
+    }
+
+    public void complete() {
+        synchronized (this) {
+            completed = true;
+        }
+        drain();
+    }
+
+    public void fail(Throwable error) {
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            failure = error;
+        }
+        drain();
+    }
+
+    // Delivers buffered chunks up to the current demand; signals run outside the lock, one thread at a time
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            String chunk = null;
+            boolean finish = false;
+            Throwable error = null;
+            synchronized (this) {
+                if (cancelled || terminated) {
+                    draining = false;
+                    return;
+                }
+                if (!buffer.isEmpty() && demand > 0) {
+                    chunk = buffer.poll();
+                    demand--;
+                } else if (buffer.isEmpty() && completed) {
+                    finish = true;
+                    error = failure;
+                    terminated = true;
+                } else {
+                    draining = false;
+                    return;
+                }
+            }
+            if (chunk != null) {
+                subscriber.onNext(chunk);
+            } else if (finish) {
+                if (error != null) {
+                    subscriber.onError(error);
+                } else {
+                    subscriber.onComplete();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.seekhelp.desktop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class DonorIndex {
+
+    private static final int GRAM = 3;
+    private static final int[] EMPTY = new int[0];
+
+    private final List<BloodDonorsController.Donor> donors;
+    private final String[] normalizedNames;
+    private final Map<BloodDonorsController.Donor, Integer> positions = new IdentityHashMap<>();
+    private final Map<String, BitSet> byBloodType = new HashMap<>();
+    private final Map<String, BitSet> byLocation = new HashMap<>();
+    // Posting lists of donor positions for every 1-, 2- and 3-character substring of a name
+    private final Map<String, int[]> nameGrams;
+
+    public DonorIndex(List<BloodDonorsController.Donor> donors) {
+        this.donors = new ArrayList<>(donors);
+        this.normalizedNames = new String[donors.size()];
+
+        Map<String, IntList> grams = new HashMap<>();
+        for (int i = 0; i < this.donors.size(); i++) {
+            BloodDonorsController.Donor donor = this.donors.get(i);
+            normalizedNames[i] = normalize(donor.getName());
+            positions.put(donor, i);
+            byBloodType.computeIfAbsent(donor.getBloodType(), k -> new BitSet()).set(i);
+            byLocation.computeIfAbsent(donor.getLocation(), k -> new BitSet()).set(i);
+
+            String name = normalizedNames[i];
+            for (int length = 1; length <= GRAM; length++) {
+                for (int start = 0; start + length <= name.length(); start++) {
+                    grams.computeIfAbsent(name.substring(start, start + length), k -> new IntList()).addDistinct(i);
+                }
+            }
+        }
+
+        nameGrams = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, postings) -> nameGrams.put(gram, postings.toArray()));
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return donors.size();
+    }
+
+    // A null blood type or location means "any"; results keep registry order
+    public List<BloodDonorsController.Donor> search(String nameQuery, String bloodType, String location) {
+        BitSet candidates = null;
+        if (bloodType != null) {
+            candidates = copyOf(byBloodType.get(bloodType));
+        }
+        if (location != null) {
+            BitSet locationMatches = byLocation.get(location);
+            if (candidates == null) {
+                candidates = copyOf(locationMatches);
+            } else if (locationMatches == null) {
+                candidates.clear();
+            } else {
+                candidates.and(locationMatches);
+            }
+        }
+
+        String query = normalize(nameQuery);
+        List<BloodDonorsController.Donor> results = new ArrayList<>();
+        if (query.isEmpty()) {
+            if (candidates == null) {
+                results.addAll(donors);
+            } else {
+                for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                    results.add(donors.get(i));
+                }
+            }
+            return results;
+        }
+
+        // Grams shorter than the index width are exact; longer queries need verification
+        boolean needsVerify = query.length() > GRAM;
+        for (int position : matchGrams(query)) {
+            if ((candidates == null || candidates.get(position))
+                    && (!needsVerify || normalizedNames[position].contains(query))) {
+                results.add(donors.get(position));
+            }
+        }
+        return results;
+    }
+
+    // The donors from an earlier result whose name contains the query, checked against the stored
+    // normalized names; keeps the order of the earlier result
+    public List<BloodDonorsController.Donor> refine(List<BloodDonorsController.Donor> previous, String nameQuery) {
+        String query = normalize(nameQuery);
+        List<BloodDonorsController.Donor> results = new ArrayList<>();
+        for (BloodDonorsController.Donor donor : previous) {
+            Integer position = positions.get(donor);
+            if (position != null && normalizedNames[position].contains(query)) {
+                results.add(donor);
+            }
+        }
+        return results;
+    }
+
+    // Positions of donors whose name contains the query, or null when the query is empty
+    public BitSet nameMatches(String nameQuery) {
+        String query = normalize(nameQuery);
+        if (query.isEmpty()) {
+            return null;
+        }
+        BitSet matches = new BitSet(donors.size());
+        boolean needsVerify = query.length() > GRAM;
+        for (int position : matchGrams(query)) {
+            if (!needsVerify || normalizedNames[position].contains(query)) {
+                matches.set(position);
+            }
+        }
+        return matches;
+    }
+
+    private int[] matchGrams(String query) {
+        if (query.length() <= GRAM) {
+            return nameGrams.getOrDefault(query, EMPTY);
+        }
+
+        List<int[]> postings = new ArrayList<>();
+        for (int start = 0; start + GRAM <= query.length(); start++) {
+            int[] posting = nameGrams.get(query.substring(start, start + GRAM));
+            if (posting == null) {
+                return EMPTY;
+            }
+            postings.add(posting);
+        }
+        // Intersect smallest lists first so the working set shrinks quickly
+        postings.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] result = postings.get(0);
+        for (int i = 1; i < postings.size() && result.length > 0; i++) {
+            result = intersect(result, postings.get(i));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    private static BitSet copyOf(BitSet bits) {
+        return bits == null ? new BitSet() : (BitSet) bits.clone();
+    }
+
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        // Donors are indexed in order, so a repeated gram in one name only needs checking against the tail
+        void addDistinct(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
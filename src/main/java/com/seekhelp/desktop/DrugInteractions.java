@@ -0,0 +1,254 @@
+package com.seekhelp.desktop;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Drug-pair interactions loaded from a tab-separated data file (see src/main/resources/interactions).
+// Drug names are interned to dense int ids, and the pairs are stored as a compressed adjacency table:
+// drug d's partners are neighbors[offsets[d]..offsets[d + 1]), sorted, with the matching interaction
+// index alongside. Looking up a pair is a binary search in one short row, so checking N medicines is
+// N^2 / 2 cheap probes and no objects are created unless an interaction is found.
+// Settings: -Dseekhelp.interactions.file (default: the bundled dataset)
+public class DrugInteractions {
+
+    public enum Severity { MINOR, MODERATE, MAJOR }
+
+    private static final String DEFAULT_RESOURCE = "/interactions/drug-interactions.tsv";
+
+    // Interned names: lower-case words joined by single spaces, aliases included
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> drugNames = new ArrayList<>();
+    private int longestName = 1;
+
+    private int[] offsets;
+    private int[] neighbors;
+    private int[] neighborPairs;
+    private byte[] severities;
+    private int[] noteRefs;
+    private final List<String> notes = new ArrayList<>();
+
+    private DrugInteractions(BufferedReader reader) throws IOException {
+        Map<String, Integer> noteIds = new HashMap<>();
+        int[] first = new int[256];
+        int[] second = new int[256];
+        byte[] severity = new byte[256];
+        int[] note = new int[256];
+        int pairs = 0;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            if (fields[0].equals("alias") && fields.length >= 3) {
+                ids.putIfAbsent(key(fields[1]), intern(fields[2]));
+                longestName = Math.max(longestName, TextTokens.tokenize(fields[1]).size());
+            } else if (fields[0].equals("pair") && fields.length >= 5) {
+                if (pairs == first.length) {
+                    first = Arrays.copyOf(first, pairs * 2);
+                    second = Arrays.copyOf(second, pairs * 2);
+                    severity = Arrays.copyOf(severity, pairs * 2);
+                    note = Arrays.copyOf(note, pairs * 2);
+                }
+                first[pairs] = intern(fields[1]);
+                second[pairs] = intern(fields[2]);
+                severity[pairs] = (byte) Severity.valueOf(fields[3].trim().toUpperCase(Locale.ROOT)).ordinal();
+                note[pairs] = noteIds.computeIfAbsent(fields[4].trim(), text -> {
+                    notes.add(text);
+                    return notes.size() - 1;
+                });
+                pairs++;
+            } else {
+                throw new IOException("Malformed interaction data at line " + lineNumber);
+            }
+        }
+        severities = Arrays.copyOf(severity, pairs);
+        noteRefs = Arrays.copyOf(note, pairs);
+        buildAdjacency(first, second, pairs);
+    }
+
+    // The file named by -Dseekhelp.interactions.file, else the bundled dataset; blocking, so call it off the FX thread
+    public static DrugInteractions loadDefault() throws IOException {
+        String file = System.getProperty("seekhelp.interactions.file");
+        if (file != null) {
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+                return new DrugInteractions(reader);
+            }
+        }
+        try (InputStream in = DrugInteractions.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Interaction data not found on the classpath: " + DEFAULT_RESOURCE);
+            }
+            return new DrugInteractions(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+    }
+
+    // Every pair appears in both drugs' rows; each row is then sorted by partner id
+    private void buildAdjacency(int[] first, int[] second, int pairs) {
+        int drugs = drugNames.size();
+        offsets = new int[drugs + 1];
+        for (int p = 0; p < pairs; p++) {
+            offsets[first[p] + 1]++;
+            offsets[second[p] + 1]++;
+        }
+        for (int d = 0; d < drugs; d++) {
+            offsets[d + 1] += offsets[d];
+        }
+        long[] entries = new long[pairs * 2];
+        int[] fill = Arrays.copyOf(offsets, drugs);
+        for (int p = 0; p < pairs; p++) {
+            entries[fill[first[p]]++] = ((long) second[p] << 32) | p;
+            entries[fill[second[p]]++] = ((long) first[p] << 32) | p;
+        }
+        neighbors = new int[entries.length];
+        neighborPairs = new int[entries.length];
+        for (int d = 0; d < drugs; d++) {
+            Arrays.sort(entries, offsets[d], offsets[d + 1]);
+            for (int i = offsets[d]; i < offsets[d + 1]; i++) {
+                neighbors[i] = (int) (entries[i] >>> 32);
+                neighborPairs[i] = (int) entries[i];
+            }
+        }
+    }
+
+    private int intern(String name) {
+        String key = key(name);
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = drugNames.size();
+            ids.put(key, id);
+            drugNames.add(name.trim());
+            longestName = Math.max(longestName, TextTokens.tokenize(name).size());
+        }
+        return id;
+    }
+
+    private static String key(String name) {
+        return String.join(" ", TextTokens.tokenize(name));
+    }
+
+    public int getDrugCount() {
+        return drugNames.size();
+    }
+
+    public int getPairCount() {
+        return severities.length;
+    }
+
+    public String getDrugName(int drug) {
+        return drugNames.get(drug);
+    }
+
+    // Drugs named in free text such as a product name ("Crocin 650mg Tablet"), longest names first, without duplicates
+    public int[] resolve(String text) {
+        List<String> words = TextTokens.tokenize(text);
+        int[] found = new int[words.size()];
+        int count = 0;
+        int i = 0;
+        while (i < words.size()) {
+            int matched = 0;
+            for (int length = Math.min(longestName, words.size() - i); length > 0 && matched == 0; length--) {
+                Integer id = ids.get(String.join(" ", words.subList(i, i + length)));
+                if (id != null) {
+                    matched = length;
+                    if (indexOf(found, count, id) < 0) {
+                        found[count++] = id;
+                    }
+                }
+            }
+            i += Math.max(1, matched);
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    // The interaction between two drugs, or null
+    public Interaction find(int drug, int other) {
+        int from = offsets[drug];
+        int to = offsets[drug + 1];
+        int at = Arrays.binarySearch(neighbors, from, to, other);
+        if (at < 0) {
+            return null;
+        }
+        int pair = neighborPairs[at];
+        return new Interaction(drugNames.get(drug), drugNames.get(other),
+            Severity.values()[severities[pair]], notes.get(noteRefs[pair]));
+    }
+
+    // Every interacting pair among the drugs, most severe first
+    public List<Interaction> check(int[] drugs) {
+        List<Interaction> found = new ArrayList<>();
+        for (int i = 0; i < drugs.length; i++) {
+            for (int j = i + 1; j < drugs.length; j++) {
+                Interaction interaction = find(drugs[i], drugs[j]);
+                if (interaction != null) {
+                    found.add(interaction);
+                }
+            }
+        }
+        found.sort(Comparator.comparing(Interaction::getSeverity).reversed());
+        return found;
+    }
+
+    // Interactions between the added drugs and the ones already present, most severe first
+    public List<Interaction> check(int[] added, int[] present) {
+        List<Interaction> found = new ArrayList<>();
+        for (int drug : added) {
+            for (int other : present) {
+                Interaction interaction = drug == other ? null : find(drug, other);
+                if (interaction != null) {
+                    found.add(interaction);
+                }
+            }
+        }
+        found.sort(Comparator.comparing(Interaction::getSeverity).reversed());
+        return found;
+    }
+
+    private static int indexOf(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static class Interaction {
+        private final String drug;
+        private final String otherDrug;
+        private final Severity severity;
+        private final String note;
+
+        Interaction(String drug, String otherDrug, Severity severity, String note) {
+            this.drug = drug;
+            this.otherDrug = otherDrug;
+            this.severity = severity;
+            this.note = note;
+        }
+
+        public String getDrug() { return drug; }
+        public String getOtherDrug() { return otherDrug; }
+        public Severity getSeverity() { return severity; }
+        public String getNote() { return note; }
+
+        // e.g. "MAJOR: Warfarin + Aspirin - Greatly increased risk of bleeding."
+        public String describe() {
+            return severity + ": " + drug + " + " + otherDrug + " - " + note;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import javafx.animation.Timeline;
 import javafx.animation.KeyFrame;
 import javafx.util.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class EmergencyController {
 
@@ -21,6 +22,7 @@ public class EmergencyController {
     private Label statusLabel;
     private Timeline sosAnimation;
     private boolean isEmergencyActive = false;
+    private CompletableFuture<Void> sosDispatch;
 
     public EmergencyController(MainController mainController) {
         this.mainController = mainController;
@@ -362,21 +364,18 @@ public class EmergencyController {
         sosAnimation.play();
 
         // Simulate emergency call
-        new Thread(() -> {
-            try {
-                Thread.sleep(3000);
-                javafx.application.Platform.runLater(() -> {
-                    mainController.showNotification("🚨 Emergency Services", 
-                        "Ambulance dispatched! ETA: 8-12 minutes. Stay calm and follow instructions.");
-                });
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+        // Not tied to the page: the dispatch still arrives if the user navigates away
+        sosDispatch = mainController.getTaskScheduler().runLater(null, "sos-dispatch", java.time.Duration.ofSeconds(3), () ->
+            mainController.showNotification("🚨 Emergency Services",
+                "Ambulance dispatched! ETA: 8-12 minutes. Stay calm and follow instructions."));
     }
 
     private void deactivateSOS() {
         isEmergencyActive = false;
+        if (sosDispatch != null) {
+            sosDispatch.cancel(false);
+            sosDispatch = null;
+        }
         sosButton.setText("🚨 SOS - CALL AMBULANCE");
         sosButton.getStyleClass().remove("sos-button-active");
         sosButton.getStyleClass().add("sos-button");
@@ -0,0 +1,40 @@
+package com.seekhelp.desktop;
+
+import java.util.Locale;
+import java.util.Map;
+
+public class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final Map<String, double[]> CITY_COORDINATES = Map.of(
+        "mumbai", new double[] {19.0760, 72.8777},
+        "delhi", new double[] {28.7041, 77.1025},
+        "bangalore", new double[] {12.9716, 77.5946},
+        "hyderabad", new double[] {17.3850, 78.4867},
+        "chennai", new double[] {13.0827, 80.2707},
+        "kolkata", new double[] {22.5726, 88.3639},
+        "pune", new double[] {18.5204, 73.8567},
+        "ahmedabad", new double[] {23.0225, 72.5714}
+    );
+
+    private GeoUtils() {
+    }
+
+    // Accepts "Mumbai" or "Mumbai, Maharashtra"; returns {lat, lon} or null for unknown places
+    public static double[] lookupCity(String place) {
+        if (place == null) {
+            return null;
+        }
+        String city = place.split(",")[0].trim().toLowerCase(Locale.ROOT);
+        return CITY_COORDINATES.get(city);
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -19,6 +19,7 @@ public class HeaderController {
     private Button notificationButton;
     private FontIcon notificationIcon;
     private boolean hasNotifications = true;
+    private int breachedTickets = 0;
 
     public HeaderController(MainController mainController) {
         this.mainController = mainController;
@@ -82,11 +83,31 @@ public class HeaderController {
     }
 
     private void handleNotificationClick() {
-        if (hasNotifications) {
+        if (breachedTickets > 0) {
+            mainController.showMessageCenterPage();
+            mainController.showNotification("Support Tickets",
+                breachedTickets + (breachedTickets == 1 ? " support ticket is past its" : " support tickets are past their") + " SLA deadline.");
+        } else if (hasNotifications) {
             mainController.showNotification("Welcome!", 
                 "Thank you for using Seek Help+, your healthcare companion in India.");
-            hasNotifications = false;
+        }
+        hasNotifications = false;
+        updateNotificationIndicator();
+    }
+
+    // Pushed by the support ticket queue whenever the number of tickets past their SLA changes
+    public void setBreachedTicketCount(int count) {
+        breachedTickets = count;
+        notificationButton.setText(count > 0 ? "🔔 " + count : "🔔");
+        updateNotificationIndicator();
+    }
+
+    private void updateNotificationIndicator() {
+        boolean show = hasNotifications || breachedTickets > 0;
+        if (!show) {
             notificationButton.getStyleClass().remove("has-notifications");
+        } else if (!notificationButton.getStyleClass().contains("has-notifications")) {
+            notificationButton.getStyleClass().add("has-notifications");
         }
     }
 
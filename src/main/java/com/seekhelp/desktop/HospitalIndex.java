@@ -0,0 +1,129 @@
+package com.seekhelp.desktop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+// k-d tree over hospital positions projected onto the unit sphere. Straight-line (chord) distance
+// between unit vectors orders points exactly like great-circle distance, so a plain 3-D k-d tree
+// answers haversine nearest-neighbour queries without special cases at the poles or date line.
+public class HospitalIndex {
+
+    private final HospitalsController.Hospital[] hospitals;
+    // Tree stored in-order: the median of each range is the node, its halves are the subtrees
+    private final int[] order;
+    private final double[][] points;
+
+    public HospitalIndex(List<HospitalsController.Hospital> hospitals) {
+        this.hospitals = hospitals.toArray(new HospitalsController.Hospital[0]);
+        this.points = new double[this.hospitals.length][];
+        this.order = new int[this.hospitals.length];
+        for (int i = 0; i < this.hospitals.length; i++) {
+            points[i] = toUnitVector(this.hospitals[i].getLatitude(), this.hospitals[i].getLongitude());
+            order[i] = i;
+        }
+        build(0, order.length, 0);
+    }
+
+    public int size() {
+        return hospitals.length;
+    }
+
+    private void build(int from, int to, int axis) {
+        if (to - from <= 1) {
+            return;
+        }
+        Integer[] range = new Integer[to - from];
+        for (int i = from; i < to; i++) {
+            range[i - from] = order[i];
+        }
+        Arrays.sort(range, Comparator.comparingDouble(index -> points[index][axis]));
+        for (int i = from; i < to; i++) {
+            order[i] = range[i - from];
+        }
+        int mid = (from + to) >>> 1;
+        int next = (axis + 1) % 3;
+        build(from, mid, next);
+        build(mid + 1, to, next);
+    }
+
+    // Up to k hospitals accepted by the filter, nearest first
+    public List<Nearby> nearest(double latitude, double longitude, int k, Predicate<HospitalsController.Hospital> filter) {
+        if (k <= 0 || hospitals.length == 0) {
+            return new ArrayList<>();
+        }
+        double[] target = toUnitVector(latitude, longitude);
+        // Max-heap on squared chord distance so the current worst candidate is evicted first
+        PriorityQueue<double[]> best = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b[0], a[0]));
+        search(0, order.length, 0, target, k, filter, best);
+
+        List<Nearby> results = new ArrayList<>(best.size());
+        for (double[] entry : best) {
+            double chord = Math.sqrt(entry[0]);
+            double distanceKm = 2 * GeoUtils.EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2));
+            results.add(new Nearby(hospitals[(int) entry[1]], distanceKm));
+        }
+        Collections.sort(results, Comparator.comparingDouble(Nearby::getDistanceKm));
+        return results;
+    }
+
+    private void search(int from, int to, int axis, double[] target, int k,
+                        Predicate<HospitalsController.Hospital> filter, PriorityQueue<double[]> best) {
+        if (from >= to) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        int index = order[mid];
+        double[] point = points[index];
+
+        if (filter == null || filter.test(hospitals[index])) {
+            double dx = point[0] - target[0];
+            double dy = point[1] - target[1];
+            double dz = point[2] - target[2];
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (best.size() < k) {
+                best.add(new double[] {distance, index});
+            } else if (distance < best.peek()[0]) {
+                best.poll();
+                best.add(new double[] {distance, index});
+            }
+        }
+
+        double delta = target[axis] - point[axis];
+        int next = (axis + 1) % 3;
+        if (delta < 0) {
+            search(from, mid, next, target, k, filter, best);
+            if (best.size() < k || delta * delta < best.peek()[0]) {
+                search(mid + 1, to, next, target, k, filter, best);
+            }
+        } else {
+            search(mid + 1, to, next, target, k, filter, best);
+            if (best.size() < k || delta * delta < best.peek()[0]) {
+                search(from, mid, next, target, k, filter, best);
+            }
+        }
+    }
+
+    private static double[] toUnitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return new double[] {Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+    }
+
+    public static class Nearby {
+        private final HospitalsController.Hospital hospital;
+        private final double distanceKm;
+
+        public Nearby(HospitalsController.Hospital hospital, double distanceKm) {
+            this.hospital = hospital;
+            this.distanceKm = distanceKm;
+        }
+
+        public HospitalsController.Hospital getHospital() { return hospital; }
+        public double getDistanceKm() { return distanceKm; }
+    }
+}
@@ -0,0 +1,138 @@
+package com.seekhelp.desktop;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import javafx.scene.web.WebEngine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps the persistent map page in sync with the hospital list by sending only what changed.
+// Changes made within one FX pulse are coalesced into a single applyDiff call.
+public class HospitalMapBridge {
+
+    private final WebPageBridge page;
+
+    // What the page currently shows, and what it should show
+    private final Map<Integer, Map<String, Object>> shown = new HashMap<>();
+    private final Map<Integer, Map<String, Object>> wanted = new LinkedHashMap<>();
+    private Map<String, Object> location;
+    private boolean locationDirty = false;
+    private String tileTemplate;
+    private boolean tilesDirty = false;
+    private Map<String, Object> route;
+
+    public HospitalMapBridge(WebEngine webEngine) {
+        this.page = new WebPageBridge(webEngine, "/map/hospital-map.html", () -> {
+            // Fresh page: everything has to be sent again
+            shown.clear();
+            locationDirty = location != null;
+            tilesDirty = tileTemplate != null;
+        }, this::flush);
+    }
+
+    // Loads the map page unless it is already showing, e.g. after directions replaced it
+    public void ensurePageLoaded() {
+        page.ensurePageLoaded();
+    }
+
+    public void setLocation(double latitude, double longitude, String label) {
+        Map<String, Object> next = new LinkedHashMap<>();
+        next.put("lat", latitude);
+        next.put("lon", longitude);
+        next.put("label", label);
+        if (!next.equals(location)) {
+            location = next;
+            locationDirty = true;
+            page.scheduleFlush();
+        }
+    }
+
+    public void setTileSource(String template) {
+        tileTemplate = template;
+        tilesDirty = template != null;
+        page.scheduleFlush();
+    }
+
+    // Draws a route line from the current location on the map itself, so it needs no remote page
+    public void showRoute(HospitalsController.Hospital hospital, String distance) {
+        route = new LinkedHashMap<>();
+        route.put("lat", hospital.getLatitude());
+        route.put("lon", hospital.getLongitude());
+        route.put("label", hospital.getName());
+        route.put("distance", distance);
+        page.scheduleFlush();
+    }
+
+    public void showHospitals(Collection<HospitalsController.Hospital> hospitals) {
+        wanted.clear();
+        for (HospitalsController.Hospital hospital : hospitals) {
+            wanted.put(hospital.getId(), toMarker(hospital));
+        }
+        page.scheduleFlush();
+    }
+
+    // Refreshes a single marker, e.g. after its bed count changed
+    public void updateHospital(HospitalsController.Hospital hospital) {
+        if (wanted.containsKey(hospital.getId())) {
+            wanted.put(hospital.getId(), toMarker(hospital));
+            page.scheduleFlush();
+        }
+    }
+
+    private Map<String, Object> toMarker(HospitalsController.Hospital hospital) {
+        Map<String, Object> marker = new LinkedHashMap<>();
+        marker.put("id", hospital.getId());
+        marker.put("name", hospital.getName());
+        marker.put("specialty", hospital.getSpecialty());
+        marker.put("lat", hospital.getLatitude());
+        marker.put("lon", hospital.getLongitude());
+        marker.put("beds", hospital.getAvailableBeds());
+        return marker;
+    }
+
+    private void flush() {
+        List<Integer> remove = new ArrayList<>();
+        for (Integer id : shown.keySet()) {
+            if (!wanted.containsKey(id)) {
+                remove.add(id);
+            }
+        }
+        List<Map<String, Object>> upsert = new ArrayList<>();
+        for (Map.Entry<Integer, Map<String, Object>> entry : wanted.entrySet()) {
+            if (!entry.getValue().equals(shown.get(entry.getKey()))) {
+                upsert.add(entry.getValue());
+            }
+        }
+        if (remove.isEmpty() && upsert.isEmpty() && !locationDirty && !tilesDirty && route == null) {
+            return;
+        }
+
+        Map<String, Object> diff = new LinkedHashMap<>();
+        diff.put("tiles", tilesDirty ? tileTemplate : null);
+        diff.put("location", locationDirty ? location : null);
+        diff.put("route", route);
+        diff.put("remove", remove);
+        diff.put("upsert", upsert);
+
+        try {
+            page.executeScript("SeekHelpMap.applyDiff(" + WebPageBridge.encode(diff) + ")");
+        } catch (JsonProcessingException e) {
+            System.err.println("Failed to encode map update: " + e.getMessage());
+            return;
+        }
+
+        for (Integer id : remove) {
+            shown.remove(id);
+        }
+        for (Map<String, Object> marker : upsert) {
+            shown.put((Integer) marker.get("id"), marker);
+        }
+        locationDirty = false;
+        tilesDirty = false;
+        route = null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.seekhelp.desktop;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Hospitals by id with live bed counts. Feed threads apply deltas with CAS on each hospital,
+// readers never lock, and changed hospitals are handed to the UI at most once per FX pulse.
+public class HospitalStore {
+
+    private final Map<Integer, HospitalsController.Hospital> byId;
+    private final Set<HospitalsController.Hospital> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pulseScheduled = new AtomicBoolean(false);
+    private final Consumer<Collection<HospitalsController.Hospital>> onChanged;
+
+    public HospitalStore(List<HospitalsController.Hospital> hospitals,
+                         Consumer<Collection<HospitalsController.Hospital>> onChanged) {
+        Map<Integer, HospitalsController.Hospital> map = new HashMap<>();
+        for (HospitalsController.Hospital hospital : hospitals) {
+            map.put(hospital.getId(), hospital);
+        }
+        this.byId = Map.copyOf(map);
+        this.onChanged = onChanged;
+    }
+
+    public HospitalsController.Hospital get(int id) {
+        return byId.get(id);
+    }
+
+    // Safe to call from any thread
+    public void apply(BedAvailabilityFeed.BedDelta delta) {
+        HospitalsController.Hospital hospital = byId.get(delta.getHospitalId());
+        if (hospital == null || delta.getChange() == 0) {
+            return;
+        }
+        hospital.applyBedChange(delta.getChange());
+        dirty.add(hospital);
+        if (pulseScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::publish);
+        }
+    }
+
+    private void publish() {
+        // Clear the flag first so deltas arriving during the drain schedule the next pulse
+        pulseScheduled.set(false);
+        List<HospitalsController.Hospital> changed = new ArrayList<>();
+        for (HospitalsController.Hospital hospital : dirty) {
+            if (dirty.remove(hospital)) {
+                changed.add(hospital);
+            }
+        }
+        if (!changed.isEmpty()) {
+            onChanged.accept(changed);
+        }
+    }
+}
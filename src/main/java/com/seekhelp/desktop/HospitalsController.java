@@ -13,8 +13,14 @@ import javafx.application.Platform;
 import javafx.scene.Node;
 import org.kordamp.ikonli.javafx.FontIcon;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class HospitalsController {
@@ -29,14 +35,26 @@ public class HospitalsController {
     private List<Hospital> allHospitals;
     private WebView mapView;
     private WebEngine webEngine;
+    private HospitalMapBridge mapBridge;
+    private List<HospitalIndex.Nearby> displayedHospitals = new ArrayList<>();
     private Button locationButton;
     private Label locationStatusLabel;
     private VBox mapContainer;
     private boolean locationEnabled = false;
     private String currentLocation = "Mumbai, Maharashtra";
+    private HospitalIndex hospitalIndex;
+    private CheckBox freeBedsCheckBox;
+    private static final int NEAREST_LIMIT = 50;
+    private HospitalStore hospitalStore;
+    private BedAvailabilityFeed bedFeed;
+    // Beds label of each card on screen, so feed updates patch text instead of rebuilding the list
+    private final Map<Integer, Label> bedLabels = new HashMap<>();
+    private final SearchPipeline<HospitalQuery, List<HospitalIndex.Nearby>> hospitalSearch;
 
     public HospitalsController(MainController mainController) {
         this.mainController = mainController;
+        hospitalSearch = new SearchPipeline<>(mainController.getTaskScheduler(), "hospital-search",
+            Duration.ofMillis(200), this::searchHospitals, HospitalQuery::narrows, this::displayHospitals);
         initializeHospitalsView();
         loadSampleData();
     }
@@ -199,17 +217,21 @@ public class HospitalsController {
         searchField.setPrefWidth(200);
         searchBox.getChildren().addAll(searchLabel, searchField);
 
+        // Bed availability filter
+        freeBedsCheckBox = new CheckBox("Only with free beds");
+        freeBedsCheckBox.setOnAction(e -> filterHospitals());
+
         // Search button
         Button searchButton = new Button("🔍 Search");
         searchButton.getStyleClass().add("primary-button");
         searchButton.setOnAction(e -> filterHospitals());
 
-        controls.getChildren().addAll(locationBox, specialtyBox, searchBox, searchButton);
+        controls.getChildren().addAll(locationBox, specialtyBox, searchBox, freeBedsCheckBox, searchButton);
 
         // Add event listeners
         locationCombo.setOnAction(e -> filterHospitals());
         specialtyCombo.setOnAction(e -> filterHospitals());
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> filterHospitals());
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> hospitalSearch.submit(currentQuery()));
 
         section.getChildren().addAll(sectionTitle, controls);
         return section;
@@ -381,6 +403,7 @@ public class HospitalsController {
             locationStatusLabel.setText("Manual location set: " + location);
             locationStatusLabel.setTextFill(Color.valueOf("#059669"));
             mainController.showNotification("Location", "Location set to: " + location);
+            filterHospitals();
             
             if (locationEnabled) {
                 Platform.runLater(() -> updateMapWithLocation());
@@ -403,35 +426,17 @@ public class HospitalsController {
             webEngine = mapView.getEngine();
             mapView.setPrefHeight(400);
             mapView.getStyleClass().add("map-view");
+            mapBridge = new HospitalMapBridge(webEngine);
+            MapTileServer tileServer = MapTileServer.getInstance();
+            if (tileServer != null) {
+                mapBridge.setTileSource(tileServer.getTileUrlTemplate());
+            }
         }
-        
-        // Load Google Maps with current location
-        String mapHtml = String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <title>Hospital Map</title>
-                <style>
-                    body { margin: 0; padding: 0; }
-                    #map { height: 400px; width: 100%%; }
-                </style>
-            </head>
-            <body>
-                <div id="map">
-                    <div style="height: 400px; background: #e8f5e8; display: flex; align-items: center; justify-content: center; border: 2px solid #059669;">
-                        <div style="text-align: center;">
-                            <h3>Your Location</h3>
-                            <p>Current Location: %s</p>
-                            <p>Nearby Hospitals: 15 found</p>
-                            <p>Map showing real-time hospital locations</p>
-                            <p>Click on hospital markers for details</p>
-                        </div>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """, currentLocation);
-        webEngine.loadContent(mapHtml);
+
+        // The page is loaded once; later changes are pushed to it as diffs
+        mapBridge.ensurePageLoaded();
+        updateMapWithLocation();
+        mapBridge.showHospitals(visibleHospitals());
         
         // Replace placeholder with actual map
         mapContainer.getChildren().clear();
@@ -440,33 +445,20 @@ public class HospitalsController {
 
     private void updateMapWithLocation() {
         if (mapView != null && locationEnabled) {
-            String updatedMapHtml = String.format("""
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <title>Hospital Map</title>
-                    <style>
-                        body { margin: 0; padding: 0; }
-                        #map { height: 400px; width: 100%%; }
-                    </style>
-                </head>
-                <body>
-                    <div id="map">
-                        <div style="height: 400px; background: #e8f5e8; display: flex; align-items: center; justify-content: center; border: 2px solid #059669;">
-                            <div style="text-align: center;">
-                                <h3>Your Location</h3>
-                                <p>Current Location: %s</p>
-                                <p>Nearby Hospitals: 15 found</p>
-                                <p>Map showing real-time hospital locations</p>
-                                <p>Click on hospital markers for details</p>
-                            </div>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """, currentLocation);
-            webEngine.loadContent(updatedMapHtml);
+            mapBridge.ensurePageLoaded();
+            double[] origin = GeoUtils.lookupCity(currentLocation);
+            if (origin != null) {
+                mapBridge.setLocation(origin[0], origin[1], currentLocation);
+            }
+        }
+    }
+
+    private List<Hospital> visibleHospitals() {
+        List<Hospital> hospitals = new ArrayList<>(displayedHospitals.size());
+        for (HospitalIndex.Nearby nearby : displayedHospitals) {
+            hospitals.add(nearby.getHospital());
         }
+        return hospitals;
     }
 
     private void clearMap() {
@@ -507,31 +499,42 @@ public class HospitalsController {
     }
 
     private void filterHospitals() {
-        String searchText = searchField.getText().toLowerCase();
-        String selectedLocation = locationCombo.getValue();
-        String selectedSpecialty = specialtyCombo.getValue();
-
-        List<Hospital> filteredHospitals = allHospitals.stream()
-            .filter(hospital -> {
-                boolean matchesSearch = searchText.isEmpty() || 
-                    hospital.getName().toLowerCase().contains(searchText) ||
-                    hospital.getSpecialty().toLowerCase().contains(searchText);
-                
-                boolean matchesLocation = selectedLocation.equals("All Locations") || 
-                    hospital.getLocation().equals(selectedLocation);
-                
-                boolean matchesSpecialty = selectedSpecialty.equals("All Specialties") || 
-                    hospital.getSpecialty().equals(selectedSpecialty);
-                
-                return matchesSearch && matchesLocation && matchesSpecialty;
-            })
-            .collect(Collectors.toList());
+        hospitalSearch.submitNow(currentQuery());
+    }
 
-        displayHospitals(filteredHospitals);
+    private HospitalQuery currentQuery() {
+        return new HospitalQuery(searchField.getText().toLowerCase(), locationCombo.getValue(), specialtyCombo.getValue(),
+            freeBedsCheckBox.isSelected(), GeoUtils.lookupCity(currentLocation));
     }
 
-    private void displayHospitals(List<Hospital> hospitals) {
+    // Runs on the search thread; previous holds the last results when the new query only narrows it
+    private List<HospitalIndex.Nearby> searchHospitals(HospitalQuery query, List<HospitalIndex.Nearby> previous) {
+        // A truncated nearest-K list may be missing hospitals that match the narrower query
+        if (previous != null && previous.size() < NEAREST_LIMIT) {
+            return previous.stream()
+                .filter(nearby -> query.matches(nearby.getHospital()))
+                .collect(Collectors.toList());
+        }
+
+        if (query.origin != null) {
+            return hospitalIndex.nearest(query.origin[0], query.origin[1], NEAREST_LIMIT, query::matches);
+        }
+
+        // Without a known position there is no distance to rank by
+        return allHospitals.stream()
+            .filter(query::matches)
+            .map(hospital -> new HospitalIndex.Nearby(hospital, Double.NaN))
+            .collect(Collectors.toList());
+    }
+
+    private void displayHospitals(List<HospitalIndex.Nearby> hospitals) {
+        displayedHospitals = hospitals;
+        if (mapBridge != null && locationEnabled) {
+            mapBridge.showHospitals(visibleHospitals());
+        }
+
         hospitalsContainer.getChildren().clear();
+        bedLabels.clear();
 
         if (hospitals.isEmpty()) {
             Label noResultsLabel = new Label("No hospitals found matching your criteria.");
@@ -543,13 +546,13 @@ public class HospitalsController {
             return;
         }
 
-        for (Hospital hospital : hospitals) {
-            VBox hospitalCard = createHospitalCard(hospital);
+        for (HospitalIndex.Nearby nearby : hospitals) {
+            VBox hospitalCard = createHospitalCard(nearby.getHospital(), nearby.getDistanceKm());
             hospitalsContainer.getChildren().add(hospitalCard);
         }
     }
 
-    private VBox createHospitalCard(Hospital hospital) {
+    private VBox createHospitalCard(Hospital hospital, double distanceKm) {
         VBox card = new VBox();
         card.setSpacing(10);
         card.setPadding(new Insets(20));
@@ -582,13 +585,16 @@ public class HospitalsController {
         locationLabel.setFont(Font.font("System", 12));
         locationLabel.setTextFill(Color.valueOf("#6b7280"));
 
-        Label distanceLabel = new Label("Distance: " + hospital.getDistance() + " km");
+        Label distanceLabel = new Label(Double.isNaN(distanceKm)
+            ? "Distance: unknown"
+            : String.format("Distance: %.1f km", distanceKm));
         distanceLabel.setFont(Font.font("System", 12));
         distanceLabel.setTextFill(Color.valueOf("#059669"));
 
         Label bedsLabel = new Label("Available Beds: " + hospital.getAvailableBeds());
         bedsLabel.setFont(Font.font("System", 12));
         bedsLabel.setTextFill(Color.valueOf("#dc2626"));
+        bedLabels.put(hospital.getId(), bedsLabel);
 
         details.getChildren().addAll(specialtyLabel, locationLabel, distanceLabel, bedsLabel);
 
@@ -633,12 +639,18 @@ public class HospitalsController {
     }
 
     private void getDirections(Hospital hospital) {
-        mainController.showNotification("Directions", "Opening directions to " + hospital.getName());
-        // In real implementation, this would open Google Maps with directions
-        if (webEngine != null) {
-            String directionsUrl = "https://www.google.com/maps/dir/" + currentLocation.replace(" ", "+") + "/" + hospital.getName().replace(" ", "+") + "+" + hospital.getLocation().replace(" ", "+");
-            webEngine.load(directionsUrl);
+        if (!locationEnabled || mapBridge == null) {
+            mainController.showNotification("Directions", "Please enable location services first.");
+            return;
         }
+
+        // Drawn on the local map over cached tiles, so directions also work offline
+        double[] origin = GeoUtils.lookupCity(currentLocation);
+        String distance = origin == null ? "unknown distance" : String.format("%.1f km",
+            GeoUtils.haversineKm(origin[0], origin[1], hospital.getLatitude(), hospital.getLongitude()));
+        mapBridge.ensurePageLoaded();
+        mapBridge.showRoute(hospital, distance);
+        mainController.showNotification("Directions", "Showing route to " + hospital.getName() + " (" + distance + ")");
     }
 
     private void callHospital(Hospital hospital) {
@@ -648,18 +660,43 @@ public class HospitalsController {
 
     private void loadSampleData() {
         allHospitals = new ArrayList<>();
-        allHospitals.add(new Hospital("Apollo Hospital", "Multi-specialty", "Cardiology", "Mumbai", "2.5", "15"));
-        allHospitals.add(new Hospital("Fortis Hospital", "Private", "Emergency Care", "Mumbai", "3.2", "8"));
-        allHospitals.add(new Hospital("AIIMS Delhi", "Government", "General Medicine", "Delhi", "1.8", "25"));
-        allHospitals.add(new Hospital("Manipal Hospital", "Private", "Neurology", "Bangalore", "4.1", "12"));
-        allHospitals.add(new Hospital("Civil Hospital", "Government", "Emergency Care", "Ahmedabad", "2.9", "20"));
-        allHospitals.add(new Hospital("Kokilaben Hospital", "Private", "Cardiology", "Mumbai", "1.5", "10"));
-        allHospitals.add(new Hospital("Safdarjung Hospital", "Government", "General Medicine", "Delhi", "3.7", "30"));
-        allHospitals.add(new Hospital("Narayana Health", "Private", "Pediatrics", "Bangalore", "2.8", "18"));
-        allHospitals.add(new Hospital("KEM Hospital", "Government", "Emergency Care", "Mumbai", "1.2", "22"));
-        allHospitals.add(new Hospital("Breach Candy Hospital", "Private", "Gynecology", "Mumbai", "3.5", "6"));
+        allHospitals.add(new Hospital(1, "Apollo Hospital", "Multi-specialty", "Cardiology", "Mumbai", 19.0213, 73.0250, 15));
+        allHospitals.add(new Hospital(2, "Fortis Hospital", "Private", "Emergency Care", "Mumbai", 19.1624, 72.9416, 8));
+        allHospitals.add(new Hospital(3, "AIIMS Delhi", "Government", "General Medicine", "Delhi", 28.5672, 77.2100, 25));
+        allHospitals.add(new Hospital(4, "Manipal Hospital", "Private", "Neurology", "Bangalore", 12.9592, 77.6484, 12));
+        allHospitals.add(new Hospital(5, "Civil Hospital", "Government", "Emergency Care", "Ahmedabad", 23.0536, 72.6035, 20));
+        allHospitals.add(new Hospital(6, "Kokilaben Hospital", "Private", "Cardiology", "Mumbai", 19.1313, 72.8253, 10));
+        allHospitals.add(new Hospital(7, "Safdarjung Hospital", "Government", "General Medicine", "Delhi", 28.5680, 77.2058, 30));
+        allHospitals.add(new Hospital(8, "Narayana Health", "Private", "Pediatrics", "Bangalore", 12.8117, 77.6949, 18));
+        allHospitals.add(new Hospital(9, "KEM Hospital", "Government", "Emergency Care", "Mumbai", 19.0025, 72.8421, 22));
+        allHospitals.add(new Hospital(10, "Breach Candy Hospital", "Private", "Gynecology", "Mumbai", 18.9720, 72.8056, 6));
+
+        hospitalIndex = new HospitalIndex(allHospitals);
+        filterHospitals();
+
+        hospitalStore = new HospitalStore(allHospitals, this::updateBedCounts);
+        bedFeed = BedAvailabilityFeed.fromSystemProperty();
+        bedFeed.start(hospitalStore::apply);
+    }
 
-        displayHospitals(allHospitals);
+    // Stops the live bed feed; called when the application shuts down
+    public void dispose() {
+        if (bedFeed != null) {
+            bedFeed.stop();
+        }
+    }
+
+    // Runs on the FX thread with every hospital whose beds changed since the last pulse
+    private void updateBedCounts(Collection<Hospital> changed) {
+        for (Hospital hospital : changed) {
+            Label bedsLabel = bedLabels.get(hospital.getId());
+            if (bedsLabel != null) {
+                bedsLabel.setText("Available Beds: " + hospital.getAvailableBeds());
+            }
+            if (mapBridge != null) {
+                mapBridge.updateHospital(hospital);
+            }
+        }
     }
 
     public VBox getHospitalsView() {
@@ -670,24 +707,77 @@ public class HospitalsController {
         return scrollPane;
     }
 
+    private static class HospitalQuery {
+        private final String searchText;
+        private final String location;
+        private final String specialty;
+        private final boolean freeBedsOnly;
+        private final double[] origin;
+
+        HospitalQuery(String searchText, String location, String specialty, boolean freeBedsOnly, double[] origin) {
+            this.searchText = searchText;
+            this.location = location;
+            this.specialty = specialty;
+            this.freeBedsOnly = freeBedsOnly;
+            this.origin = origin;
+        }
+
+        boolean matches(Hospital hospital) {
+            boolean matchesSearch = searchText.isEmpty() || 
+                hospital.getName().toLowerCase().contains(searchText) ||
+                hospital.getSpecialty().toLowerCase().contains(searchText);
+            
+            boolean matchesLocation = location.equals("All Locations") || 
+                hospital.getLocation().equals(location);
+            
+            boolean matchesSpecialty = specialty.equals("All Specialties") || 
+                hospital.getSpecialty().equals(specialty);
+
+            boolean matchesBeds = !freeBedsOnly || hospital.getAvailableBeds() > 0;
+            
+            return matchesSearch && matchesLocation && matchesSpecialty && matchesBeds;
+        }
+
+        boolean narrows(HospitalQuery previous) {
+            return location.equals(previous.location)
+                && specialty.equals(previous.specialty)
+                && (freeBedsOnly || !previous.freeBedsOnly)
+                && Arrays.equals(origin, previous.origin)
+                && searchText.startsWith(previous.searchText);
+        }
+    }
+
     // Inner class for hospital data
     public static class Hospital {
-        private String name, type, specialty, location, distance, availableBeds;
-
-        public Hospital(String name, String type, String specialty, String location, String distance, String availableBeds) {
+        private int id;
+        private String name, type, specialty, location;
+        private double latitude, longitude;
+        private final AtomicInteger availableBeds;
+
+        public Hospital(int id, String name, String type, String specialty, String location,
+                        double latitude, double longitude, int availableBeds) {
+            this.id = id;
             this.name = name;
             this.type = type;
             this.specialty = specialty;
             this.location = location;
-            this.distance = distance;
-            this.availableBeds = availableBeds;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.availableBeds = new AtomicInteger(availableBeds);
         }
 
+        public int getId() { return id; }
         public String getName() { return name; }
         public String getType() { return type; }
         public String getSpecialty() { return specialty; }
         public String getLocation() { return location; }
-        public String getDistance() { return distance; }
-        public String getAvailableBeds() { return availableBeds; }
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+        public int getAvailableBeds() { return availableBeds.get(); }
+
+        // Applied from the bed feed thread; counts never go below zero
+        int applyBedChange(int change) {
+            return availableBeds.updateAndGet(beds -> Math.max(0, beds + change));
+        }
     }
 }
@@ -0,0 +1,247 @@
+package com.seekhelp.desktop;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Keyword intent matcher loaded from a JSON data file (see src/main/resources/intents). All keywords
+// of all intents are compiled into one Aho-Corasick automaton, so a message is scored in a single
+// pass over its characters however many intents there are.
+//
+// Keywords match whole words; a trailing * matches any word starting with the keyword ("symptom*"
+// also matches "symptoms"). An intent's score is the sum of the weights of its distinct keywords
+// found in the message, and it matches when the score reaches its minScore (default 1).
+public class IntentEngine {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final List<Intent> intents = new ArrayList<>();
+    private final String fallback;
+
+    // Keywords
+    private final List<String> keywords = new ArrayList<>();
+    private final List<Boolean> prefixKeywords = new ArrayList<>();
+    private final List<int[]> keywordIntents = new ArrayList<>(); // pairs of intent index, weight
+
+    // Automaton: full transition table over the keyword alphabet, plus the keywords ending in each state
+    private final Map<Character, Integer> alphabet = new HashMap<>();
+    private final int[] asciiSymbols = new int[128];
+    private int[] transitions;
+    private int[][] outputs;
+
+    public static IntentEngine load(String resource) {
+        try (InputStream in = IntentEngine.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Intent file not found on the classpath: " + resource);
+            }
+            return new IntentEngine(JSON.readTree(in));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read intent file " + resource, e);
+        }
+    }
+
+    IntentEngine(JsonNode definition) {
+        this.fallback = definition.path("fallback").asText("");
+
+        Map<String, Integer> keywordIds = new HashMap<>();
+        for (JsonNode node : definition.path("intents")) {
+            int intentIndex = intents.size();
+            intents.add(new Intent(node.path("id").asText(), node.path("response").asText(),
+                node.path("minScore").asInt(1)));
+
+            Iterator<Map.Entry<String, JsonNode>> entries = node.path("keywords").fields();
+            while (entries.hasNext()) {
+                Map.Entry<String, JsonNode> entry = entries.next();
+                String keyword = entry.getKey().toLowerCase(Locale.ROOT).trim();
+                boolean prefix = keyword.endsWith("*");
+                if (prefix) {
+                    keyword = keyword.substring(0, keyword.length() - 1);
+                }
+                if (keyword.isEmpty()) {
+                    continue;
+                }
+                String key = keyword + (prefix ? "*" : "");
+                Integer id = keywordIds.get(key);
+                if (id == null) {
+                    id = keywords.size();
+                    keywordIds.put(key, id);
+                    keywords.add(keyword);
+                    prefixKeywords.add(prefix);
+                    keywordIntents.add(new int[0]);
+                }
+                int[] targets = keywordIntents.get(id);
+                int[] grown = Arrays.copyOf(targets, targets.length + 2);
+                grown[targets.length] = intentIndex;
+                grown[targets.length + 1] = entry.getValue().asInt(1);
+                keywordIntents.set(id, grown);
+            }
+        }
+        compile();
+    }
+
+    public String getFallback() {
+        return fallback;
+    }
+
+    // Matching intents, best score first; ties keep the order of the data file
+    public List<IntentMatch> match(String message) {
+        int[] scores = new int[intents.size()];
+        boolean[] seen = new boolean[keywords.size()];
+        int alphabetSize = alphabet.size() + 1;
+        int length = message.length();
+        int state = 0;
+
+        for (int i = 0; i < length; i++) {
+            state = transitions[state * alphabetSize + symbolOf(Character.toLowerCase(message.charAt(i)))];
+            for (int keyword : outputs[state]) {
+                if (seen[keyword]) {
+                    continue;
+                }
+                int start = i - keywords.get(keyword).length() + 1;
+                boolean startsWord = start == 0 || !Character.isLetterOrDigit(message.charAt(start - 1));
+                boolean endsWord = prefixKeywords.get(keyword)
+                    || i + 1 == length || !Character.isLetterOrDigit(message.charAt(i + 1));
+                if (startsWord && endsWord) {
+                    seen[keyword] = true;
+                    int[] targets = keywordIntents.get(keyword);
+                    for (int t = 0; t < targets.length; t += 2) {
+                        scores[targets[t]] += targets[t + 1];
+                    }
+                }
+            }
+        }
+
+        List<IntentMatch> matches = new ArrayList<>();
+        for (int i = 0; i < scores.length; i++) {
+            Intent intent = intents.get(i);
+            if (scores[i] > 0 && scores[i] >= intent.minScore) {
+                matches.add(new IntentMatch(intent.id, intent.response, scores[i]));
+            }
+        }
+        // Stable sort, so equal scores stay in file order
+        matches.sort((a, b) -> Integer.compare(b.score, a.score));
+        return matches;
+    }
+
+    // Response of the best intent, or the fallback when nothing matched
+    public String respond(String message) {
+        List<IntentMatch> matches = match(message);
+        return matches.isEmpty() ? fallback : matches.get(0).getResponse();
+    }
+
+    private int symbolOf(char c) {
+        return c < asciiSymbols.length ? asciiSymbols[c] : alphabet.getOrDefault(c, 0);
+    }
+
+    private void compile() {
+        // Trie over the keywords; symbol 0 stands for every character no keyword uses
+        for (String keyword : keywords) {
+            for (char c : keyword.toCharArray()) {
+                alphabet.putIfAbsent(c, alphabet.size() + 1);
+            }
+        }
+        for (Map.Entry<Character, Integer> entry : alphabet.entrySet()) {
+            if (entry.getKey() < asciiSymbols.length) {
+                asciiSymbols[entry.getKey()] = entry.getValue();
+            }
+        }
+        int alphabetSize = alphabet.size() + 1;
+
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(newState(alphabetSize));
+        ends.add(new ArrayList<>());
+        for (int k = 0; k < keywords.size(); k++) {
+            int state = 0;
+            for (char c : keywords.get(k).toCharArray()) {
+                int symbol = alphabet.get(c);
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newState(alphabetSize));
+                    ends.add(new ArrayList<>());
+                }
+                state = trie.get(state)[symbol];
+            }
+            ends.get(state).add(k);
+        }
+
+        // Breadth-first failure links, folded straight into a complete transition table
+        int states = trie.size();
+        transitions = new int[states * alphabetSize];
+        int[] failure = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = trie.get(0)[symbol];
+            if (next < 0) {
+                transitions[symbol] = 0;
+            } else {
+                transitions[symbol] = next;
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            ends.get(state).addAll(ends.get(failure[state]));
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = trie.get(state)[symbol];
+                if (next < 0) {
+                    transitions[state * alphabetSize + symbol] = transitions[failure[state] * alphabetSize + symbol];
+                } else {
+                    transitions[state * alphabetSize + symbol] = next;
+                    failure[next] = transitions[failure[state] * alphabetSize + symbol];
+                    queue.add(next);
+                }
+            }
+        }
+
+        outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            outputs[state] = ends.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private static int[] newState(int alphabetSize) {
+        int[] state = new int[alphabetSize];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static class Intent {
+        private final String id;
+        private final String response;
+        private final int minScore;
+
+        Intent(String id, String response, int minScore) {
+            this.id = id;
+            this.response = response;
+            this.minScore = minScore;
+        }
+    }
+
+    public static class IntentMatch {
+        private final String intent;
+        private final String response;
+        private final int score;
+
+        IntentMatch(String intent, String response, int score) {
+            this.intent = intent;
+            this.response = response;
+            this.score = score;
+        }
+
+        public String getIntent() { return intent; }
+        public String getResponse() { return response; }
+        public int getScore() { return score; }
+    }
+}
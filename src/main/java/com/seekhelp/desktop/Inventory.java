@@ -0,0 +1,157 @@
+package com.seekhelp.desktop;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Shop stock per SKU, safe for many checkouts at once without locks. Each SKU has two counters:
+// available (what can still be reserved) and on hand (what is physically in stock). reserve() takes
+// units from available with a compare-and-set loop, so two buyers can never both get the last unit;
+// commit() removes them from on hand at checkout, and release() or expiry gives them back.
+// A reservation is held for a limited time and released automatically if it is not committed;
+// its state changes once, so a checkout racing with expiry either commits or finds it expired.
+// Expiry is one sweep over the open holds every SWEEP_INTERVAL, run on the app's task scheduler while
+// any hold is open, so a reservation costs a set insert rather than a timer of its own.
+public class Inventory {
+
+    private static final int HELD = 0;
+    private static final int COMMITTED = 1;
+    private static final int RELEASED = 2;
+    private static final Duration SWEEP_INTERVAL = Duration.ofMillis(250);
+
+    private final Map<Integer, Stock> stock = new ConcurrentHashMap<>();
+    private final Set<Reservation> held = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean sweepScheduled = new AtomicBoolean();
+    private final AppTaskScheduler scheduler;
+    private final Consumer<Reservation> onExpired;
+
+    // onExpired runs on a scheduler worker
+    public Inventory(AppTaskScheduler scheduler, Consumer<Reservation> onExpired) {
+        this.scheduler = scheduler;
+        this.onExpired = onExpired;
+    }
+
+    public void register(int sku, int onHand) {
+        stock.put(sku, new Stock(onHand));
+    }
+
+    public int getAvailable(int sku) {
+        Stock item = stock.get(sku);
+        return item == null ? 0 : item.available.get();
+    }
+
+    public int getOnHand(int sku) {
+        Stock item = stock.get(sku);
+        return item == null ? 0 : item.onHand.get();
+    }
+
+    // Holds quantity units for the given time; null when not enough are available
+    public Reservation reserve(int sku, int quantity, Duration hold) {
+        Stock item = stock.get(sku);
+        if (item == null || quantity <= 0) {
+            return null;
+        }
+        while (true) {
+            int available = item.available.get();
+            if (available < quantity) {
+                return null;
+            }
+            if (item.available.compareAndSet(available, available - quantity)) {
+                break;
+            }
+        }
+        Reservation reservation = new Reservation(sku, quantity, item, System.nanoTime() + hold.toNanos());
+        held.add(reservation);
+        scheduleSweep();
+        return reservation;
+    }
+
+    // Turns the hold into a sale; false when it already expired or was released
+    public boolean commit(Reservation reservation) {
+        if (!reservation.finish(COMMITTED)) {
+            return false;
+        }
+        held.remove(reservation);
+        reservation.stock.onHand.addAndGet(-reservation.quantity);
+        return true;
+    }
+
+    // Gives the units back, e.g. when the item leaves the cart; false when already finished
+    public boolean release(Reservation reservation) {
+        if (!reservation.finish(RELEASED)) {
+            return false;
+        }
+        held.remove(reservation);
+        return true;
+    }
+
+    private void scheduleSweep() {
+        if (sweepScheduled.compareAndSet(false, true)) {
+            scheduler.submit(null, "inventory-expiry", SWEEP_INTERVAL, () -> {
+                sweep();
+                return null;
+            });
+        }
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        try {
+            for (Reservation reservation : held) {
+                if (now - reservation.deadline >= 0 && reservation.finish(RELEASED)) {
+                    held.remove(reservation);
+                    onExpired.accept(reservation);
+                }
+            }
+        } finally {
+            // Cleared before the check, so a hold added meanwhile either sees the flag clear or is seen here
+            sweepScheduled.set(false);
+            if (!held.isEmpty()) {
+                scheduleSweep();
+            }
+        }
+    }
+
+    private static class Stock {
+        private final AtomicInteger available;
+        private final AtomicInteger onHand;
+
+        Stock(int onHand) {
+            this.available = new AtomicInteger(onHand);
+            this.onHand = new AtomicInteger(onHand);
+        }
+    }
+
+    public static class Reservation {
+        private final int sku;
+        private final int quantity;
+        private final Stock stock;
+        private final AtomicInteger state = new AtomicInteger(HELD);
+        private final long deadline;
+
+        Reservation(int sku, int quantity, Stock stock, long deadline) {
+            this.sku = sku;
+            this.quantity = quantity;
+            this.stock = stock;
+            this.deadline = deadline;
+        }
+
+        private boolean finish(int outcome) {
+            if (!state.compareAndSet(HELD, outcome)) {
+                return false;
+            }
+            if (outcome == RELEASED) {
+                stock.available.addAndGet(quantity);
+            }
+            return true;
+        }
+
+        public int getSku() { return sku; }
+        public int getQuantity() { return quantity; }
+        public boolean isHeld() { return state.get() == HELD; }
+    }
+}
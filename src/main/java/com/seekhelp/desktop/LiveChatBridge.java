@@ -0,0 +1,69 @@
+package com.seekhelp.desktop;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import javafx.scene.web.WebEngine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Appends live chat messages to the persistent chat page. Messages posted within one FX pulse are
+// sent as a single SeekHelpChat.append batch, encoded as JSON and rendered as text by the page, and
+// the page keeps only the newest maxMessages so a long session costs the same per message.
+public class LiveChatBridge {
+
+    private final WebPageBridge page;
+    private final int maxMessages;
+
+    private final List<Map<String, Object>> outbox = new ArrayList<>();
+    private String state;
+
+    public LiveChatBridge(WebEngine webEngine, int maxMessages) {
+        this.maxMessages = Math.max(1, maxMessages);
+        this.page = new WebPageBridge(webEngine, "/chat/live-chat.html", () -> { }, this::flush);
+    }
+
+    public void ensurePageLoaded() {
+        page.ensurePageLoaded();
+    }
+
+    public void append(String sender, String text, boolean fromUser) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("sender", sender);
+        message.put("text", text);
+        message.put("user", fromUser);
+        outbox.add(message);
+        // Nothing older than the window would survive the next trim anyway
+        if (outbox.size() > maxMessages) {
+            outbox.subList(0, outbox.size() - maxMessages).clear();
+        }
+        page.scheduleFlush();
+    }
+
+    // Text after the header title, e.g. "Connected to agent"
+    public void setState(String text) {
+        state = text;
+        page.scheduleFlush();
+    }
+
+    private void flush() {
+        if (outbox.isEmpty() && state == null) {
+            return;
+        }
+        try {
+            StringBuilder script = new StringBuilder();
+            if (state != null) {
+                script.append("SeekHelpChat.setState(").append(WebPageBridge.encode(state)).append(");");
+            }
+            if (!outbox.isEmpty()) {
+                script.append("SeekHelpChat.append(").append(WebPageBridge.encode(outbox)).append(", ").append(maxMessages).append(");");
+            }
+            page.executeScript(script.toString());
+        } catch (JsonProcessingException e) {
+            System.err.println("Failed to encode chat update: " + e.getMessage());
+        }
+        outbox.clear();
+        state = null;
+    }
+}
@@ -2,6 +2,7 @@ package com.seekhelp.desktop;
 
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -13,6 +14,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class MainController {
@@ -20,26 +24,33 @@ public class MainController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private AppTaskScheduler taskScheduler;
+
     private BorderPane root;
     private HeaderController headerController;
     private SidebarController sidebarController;
-    private HomeController homeController;
-    private BloodDonorsController bloodDonorsController;
-    private HospitalsController hospitalsController;
-    private SymptomCheckerController symptomCheckerController;
-    private AIMedicalBotController aiMedicalBotController;
-    private ProfileController profileController;
-    private AboutController aboutController;
     private AuthController authController;
-    private EmergencyController emergencyController;
-    private AdminController adminController;
-    private OrganDonorsController organDonorsController;
-    private StemCellController stemCellController;
-    private MedicalShopController medicalShopController;
-    private PrescriptionAnalyzerController prescriptionAnalyzerController;
-    private DoctorConsultationController doctorConsultationController;
-    private MessageCenterController messageCenterController;
-    private SettingsController settingsController;
+    private final PageRegistry pageRegistry = new PageRegistry();
+    private PageRegistry.Page<HomeController> homePage;
+    private PageRegistry.Page<BloodDonorsController> bloodDonorsPage;
+    private PageRegistry.Page<HospitalsController> hospitalsPage;
+    private PageRegistry.Page<SymptomCheckerController> symptomCheckerPage;
+    private PageRegistry.Page<AIMedicalBotController> aiMedicalBotPage;
+    private PageRegistry.Page<ProfileController> profilePage;
+    private PageRegistry.Page<AboutController> aboutPage;
+    private PageRegistry.Page<EmergencyController> emergencyPage;
+    private PageRegistry.Page<AdminController> adminPage;
+    private PageRegistry.Page<OrganDonorsController> organDonorsPage;
+    private PageRegistry.Page<StemCellController> stemCellPage;
+    private PageRegistry.Page<MedicalShopController> medicalShopPage;
+    private PageRegistry.Page<PrescriptionAnalyzerController> prescriptionAnalyzerPage;
+    private PageRegistry.Page<DoctorConsultationController> doctorConsultationPage;
+    private PageRegistry.Page<MessageCenterController> messageCenterPage;
+    private PageRegistry.Page<SettingsController> settingsPage;
+    private PageRegistry.Page<?> currentPage;
+    private CompletableFuture<DrugInteractions> drugInteractions;
+    private CompletableFuture<ProductCatalog> productCatalog;
 
     private String currentUser = "Guest";
     private boolean isAdmin = false;
@@ -53,26 +64,28 @@ public class MainController {
         root = new BorderPane();
         root.getStyleClass().add("main-container");
         
-        // Initialize controllers
+        // Only the chrome and login screen are built up front; pages are built on first navigation
         headerController = new HeaderController(this);
         sidebarController = new SidebarController(this);
-        homeController = new HomeController(this);
-        bloodDonorsController = new BloodDonorsController(this);
-        hospitalsController = new HospitalsController(this);
-        symptomCheckerController = new SymptomCheckerController(this);
-        aiMedicalBotController = new AIMedicalBotController(this);
-        profileController = new ProfileController(this);
-        aboutController = new AboutController(this);
         authController = new AuthController(this);
-        emergencyController = new EmergencyController(this);
-        adminController = new AdminController(this);
-        organDonorsController = new OrganDonorsController(this);
-        stemCellController = new StemCellController(this);
-        medicalShopController = new MedicalShopController(this);
-        prescriptionAnalyzerController = new PrescriptionAnalyzerController(this);
-        doctorConsultationController = new DoctorConsultationController(this);
-        messageCenterController = new MessageCenterController(this);
-        settingsController = new SettingsController(this);
+
+        // Register page controllers
+        homePage = pageRegistry.register("Home", () -> new HomeController(this));
+        bloodDonorsPage = pageRegistry.register("BloodDonors", () -> new BloodDonorsController(this));
+        hospitalsPage = pageRegistry.register("Hospitals", () -> new HospitalsController(this));
+        symptomCheckerPage = pageRegistry.register("SymptomChecker", () -> new SymptomCheckerController(this));
+        aiMedicalBotPage = pageRegistry.register("AIMedicalBot", () -> new AIMedicalBotController(this));
+        profilePage = pageRegistry.register("Profile", () -> new ProfileController(this));
+        aboutPage = pageRegistry.register("About", () -> new AboutController(this));
+        emergencyPage = pageRegistry.register("Emergency", () -> new EmergencyController(this));
+        adminPage = pageRegistry.register("Admin", () -> new AdminController(this));
+        organDonorsPage = pageRegistry.register("OrganDonors", () -> new OrganDonorsController(this));
+        stemCellPage = pageRegistry.register("StemCell", () -> new StemCellController(this));
+        medicalShopPage = pageRegistry.register("MedicalShop", () -> new MedicalShopController(this));
+        prescriptionAnalyzerPage = pageRegistry.register("PrescriptionAnalyzer", () -> new PrescriptionAnalyzerController(this));
+        doctorConsultationPage = pageRegistry.register("DoctorConsultation", () -> new DoctorConsultationController(this));
+        messageCenterPage = pageRegistry.register("MessageCenter", () -> new MessageCenterController(this));
+        settingsPage = pageRegistry.register("Settings", () -> new SettingsController(this));
 
         // Set up initial layout
         setupLayout();
@@ -89,8 +102,17 @@ public class MainController {
         showAuthPage();
     }
 
+    // Swaps the center view; background tasks of the page being left are cancelled
+    private void showPage(PageRegistry.Page<?> page, Node view) {
+        if (currentPage != null && currentPage != page) {
+            taskScheduler.cancelPage(currentPage.getName());
+        }
+        currentPage = page;
+        root.setCenter(view);
+    }
+
     public void showAuthPage() {
-        root.setCenter(authController.getAuthView());
+        showPage(null, authController.getAuthView());
         headerController.setVisible(false);
         sidebarController.setVisible(false);
     }
@@ -101,7 +123,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(homeController.getHomeScrollView());
+        showPage(homePage, homePage.get().getHomeScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
         headerController.updateUserInfo(currentUser, isAdmin);
@@ -113,7 +135,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(bloodDonorsController.getBloodDonorsView());
+        showPage(bloodDonorsPage, bloodDonorsPage.get().getBloodDonorsView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -124,7 +146,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(hospitalsController.getHospitalsScrollView());
+        showPage(hospitalsPage, hospitalsPage.get().getHospitalsScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -135,7 +157,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(symptomCheckerController.getSymptomCheckerScrollView());
+        showPage(symptomCheckerPage, symptomCheckerPage.get().getSymptomCheckerScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -146,7 +168,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(aiMedicalBotController.getAIMedicalBotView());
+        showPage(aiMedicalBotPage, aiMedicalBotPage.get().getAIMedicalBotView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -157,13 +179,13 @@ public class MainController {
             return;
         }
         
-        root.setCenter(profileController.getProfileScrollView());
+        showPage(profilePage, profilePage.get().getProfileScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
 
     public void showAboutPage() {
-        root.setCenter(aboutController.getAboutScrollView());
+        showPage(aboutPage, aboutPage.get().getAboutScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -174,7 +196,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(emergencyController.getEmergencyView());
+        showPage(emergencyPage, emergencyPage.get().getEmergencyView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -185,7 +207,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(organDonorsController.getOrganDonorsScrollView());
+        showPage(organDonorsPage, organDonorsPage.get().getOrganDonorsScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -196,7 +218,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(stemCellController.getStemCellScrollView());
+        showPage(stemCellPage, stemCellPage.get().getStemCellScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -207,7 +229,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(medicalShopController.getMedicalShopScrollView());
+        showPage(medicalShopPage, medicalShopPage.get().getMedicalShopScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -218,7 +240,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(prescriptionAnalyzerController.getPrescriptionAnalyzerScrollView());
+        showPage(prescriptionAnalyzerPage, prescriptionAnalyzerPage.get().getPrescriptionAnalyzerScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -229,7 +251,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(doctorConsultationController.getDoctorConsultationScrollView());
+        showPage(doctorConsultationPage, doctorConsultationPage.get().getDoctorConsultationScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -240,7 +262,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(messageCenterController.getMessageCenterScrollView());
+        showPage(messageCenterPage, messageCenterPage.get().getMessageCenterScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -251,7 +273,7 @@ public class MainController {
             return;
         }
         
-        root.setCenter(settingsController.getSettingsScrollView());
+        showPage(settingsPage, settingsPage.get().getSettingsScrollView());
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -262,7 +284,8 @@ public class MainController {
             return;
         }
         
-        root.setCenter(adminController.getAdminView());
+        showPage(adminPage, adminPage.get().getAdminView());
+        adminPage.get().refreshDiagnostics();
         headerController.setVisible(true);
         sidebarController.setVisible(true);
     }
@@ -275,12 +298,14 @@ public class MainController {
                 isAdmin = true;
                 isAuthenticated = true;
                 showHomePage();
+                prewarmPages();
                 showNotification("Welcome Admin!", "Successfully logged in as administrator.");
             } else if ("guest".equals(username) && "guest123".equals(password)) {
                 currentUser = "Guest User";
                 isAdmin = false;
                 isAuthenticated = true;
                 showHomePage();
+                prewarmPages();
                 showNotification("Welcome!", "Successfully logged in as guest user.");
             } else {
                 showError("Login Failed", "Invalid username or password.");
@@ -290,6 +315,15 @@ public class MainController {
         }
     }
 
+    private void prewarmPages() {
+        // Pages reachable from the sidebar are the likely next stops after login
+        List<String> likelyNext = new ArrayList<>(List.of("Emergency", "Profile", "MessageCenter", "Settings"));
+        if (isAdmin) {
+            likelyNext.add("Admin");
+        }
+        pageRegistry.prewarm(likelyNext);
+    }
+
     public void logout() {
         isAuthenticated = false;
         currentUser = "Guest";
@@ -318,6 +352,41 @@ public class MainController {
         return root;
     }
 
+    public HeaderController getHeaderController() {
+        return headerController;
+    }
+
+    public PageRegistry getPageRegistry() {
+        return pageRegistry;
+    }
+
+    // Releases what built pages hold open outside the scene graph; called from the application's stop()
+    public void shutdown() {
+        if (hospitalsPage.isBuilt()) {
+            hospitalsPage.get().dispose();
+        }
+    }
+
+    public AppTaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+
+    // Opened once, off the FX thread, and shared by the shop and the prescription analyzer
+    public CompletableFuture<ProductCatalog> getProductCatalog() {
+        if (productCatalog == null) {
+            productCatalog = taskScheduler.submit(null, "catalog-open", ProductCatalog::openDefault);
+        }
+        return productCatalog;
+    }
+
+    // Loaded once, off the FX thread, and shared by the pages that check medicines
+    public CompletableFuture<DrugInteractions> getDrugInteractions() {
+        if (drugInteractions == null) {
+            drugInteractions = taskScheduler.submit(null, "drug-interactions-load", DrugInteractions::loadDefault);
+        }
+        return drugInteractions;
+    }
+
     public String getCurrentUser() {
         return currentUser;
     }
@@ -0,0 +1,128 @@
+package com.seekhelp.desktop;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Disk tile store backed by one memory-mapped file split into fixed-size slots.
+// Slot layout: [int dataLength][long lastAccess][short keyLength][key][data]; dataLength 0 marks a free slot.
+// The slot headers are the index, so the cache survives restarts without a separate index file.
+public class MapTileCache {
+
+    public static final int SLOT_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = 4 + 8 + 2;
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    // Access-ordered, so the first entry is always the least recently used tile
+    private final LinkedHashMap<String, Integer> index = new LinkedHashMap<>(16, 0.75f, true);
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    public MapTileCache(Path file, long maxBytes) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        long capped = Math.min(maxBytes, (long) Integer.MAX_VALUE - SLOT_SIZE);
+        this.slotCount = (int) Math.max(1, capped / SLOT_SIZE);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+             FileChannel channel = raf.getChannel()) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) slotCount * SLOT_SIZE);
+        }
+        loadIndex();
+    }
+
+    private void loadIndex() {
+        List<long[]> used = new ArrayList<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            int base = slot * SLOT_SIZE;
+            int length = buffer.getInt(base);
+            short keyLength = buffer.getShort(base + 12);
+            if (length <= 0 || keyLength <= 0 || keyLength > MAX_KEY_LENGTH
+                    || HEADER_SIZE + keyLength + length > SLOT_SIZE) {
+                freeSlots.add(slot);
+                continue;
+            }
+            used.add(new long[] {buffer.getLong(base + 4), slot});
+        }
+        // Re-insert oldest first so the LRU order matches the last session
+        used.sort((a, b) -> Long.compare(a[0], b[0]));
+        for (long[] entry : used) {
+            int slot = (int) entry[1];
+            index.put(readKey(slot), slot);
+        }
+    }
+
+    public synchronized byte[] get(String key) {
+        Integer slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        int base = slot * SLOT_SIZE;
+        buffer.putLong(base + 4, System.currentTimeMillis());
+        int length = buffer.getInt(base);
+        int keyLength = buffer.getShort(base + 12);
+        byte[] data = new byte[length];
+        buffer.get(base + HEADER_SIZE + keyLength, data);
+        return data;
+    }
+
+    // Tiles too large for a slot are simply not cached
+    public synchronized boolean put(String key, byte[] data) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (data.length == 0 || keyBytes.length > MAX_KEY_LENGTH || HEADER_SIZE + keyBytes.length + data.length > SLOT_SIZE) {
+            return false;
+        }
+
+        Integer slot = index.remove(key);
+        if (slot == null) {
+            slot = freeSlots.poll();
+        }
+        if (slot == null) {
+            Iterator<Map.Entry<String, Integer>> eldest = index.entrySet().iterator();
+            slot = eldest.next().getValue();
+            eldest.remove();
+        }
+
+        int base = slot * SLOT_SIZE;
+        // Write the length last so a crash mid-write leaves the slot marked free
+        buffer.putInt(base, 0);
+        buffer.putLong(base + 4, System.currentTimeMillis());
+        buffer.putShort(base + 12, (short) keyBytes.length);
+        buffer.put(base + HEADER_SIZE, keyBytes);
+        buffer.put(base + HEADER_SIZE + keyBytes.length, data);
+        buffer.putInt(base, data.length);
+        index.put(key, slot);
+        return true;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public int capacity() {
+        return slotCount;
+    }
+
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    private String readKey(int slot) {
+        int base = slot * SLOT_SIZE;
+        byte[] keyBytes = new byte[buffer.getShort(base + 12)];
+        buffer.get(base + HEADER_SIZE, keyBytes);
+        return new String(keyBytes, StandardCharsets.UTF_8);
+    }
+}
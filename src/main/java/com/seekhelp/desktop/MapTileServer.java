@@ -0,0 +1,132 @@
+package com.seekhelp.desktop;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Loopback tile server for the hospital map. Tiles come from the disk cache when present and are
+// fetched upstream (and cached) otherwise, so seen areas render instantly and work offline.
+// Settings: -Dseekhelp.tiles.url (upstream template), -Dseekhelp.tiles.cacheMb, -Dseekhelp.tiles.dir
+public class MapTileServer {
+
+    private static final Pattern TILE_PATH = Pattern.compile("^/tiles/(\\d{1,2})/(\\d{1,7})/(\\d{1,7})\\.png$");
+    private static final String DEFAULT_UPSTREAM = "https://tile.openstreetmap.org/{z}/{x}/{y}.png";
+
+    private static MapTileServer instance;
+
+    private final MapTileCache cache;
+    private final HttpServer server;
+    private final HttpClient client;
+    private final String upstream;
+
+    private MapTileServer(MapTileCache cache, String upstream) throws IOException {
+        this.cache = cache;
+        this.upstream = upstream;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(3))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/tiles/", this::handleTile);
+        server.setExecutor(Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "seekhelp-map-tiles");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+    }
+
+    // Starts the server on first use; returns null if the cache or socket could not be set up
+    public static synchronized MapTileServer getInstance() {
+        if (instance == null) {
+            try {
+                Path dir = Path.of(System.getProperty("seekhelp.tiles.dir",
+                    Path.of(System.getProperty("user.home"), ".seekhelp", "tiles").toString()));
+                long cacheBytes = Long.getLong("seekhelp.tiles.cacheMb", 256) * 1024 * 1024;
+                MapTileCache cache = new MapTileCache(dir.resolve("tiles.dat"), cacheBytes);
+                instance = new MapTileServer(cache, System.getProperty("seekhelp.tiles.url", DEFAULT_UPSTREAM));
+            } catch (IOException e) {
+                System.err.println("Map tile cache unavailable: " + e.getMessage());
+            }
+        }
+        return instance;
+    }
+
+    // URL template understood by the map page
+    public String getTileUrlTemplate() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/tiles/{z}/{x}/{y}.png";
+    }
+
+    // Called on application exit; the HTTP dispatcher thread would otherwise keep the JVM alive
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.server.stop(0);
+            instance.cache.flush();
+            instance = null;
+        }
+    }
+
+    private void handleTile(HttpExchange exchange) throws IOException {
+        try {
+            Matcher matcher = TILE_PATH.matcher(exchange.getRequestURI().getPath());
+            if (!matcher.matches()) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String key = matcher.group(1) + "/" + matcher.group(2) + "/" + matcher.group(3);
+
+            byte[] tile = cache.get(key);
+            if (tile == null) {
+                tile = fetchUpstream(matcher.group(1), matcher.group(2), matcher.group(3));
+                if (tile != null) {
+                    cache.put(key, tile);
+                }
+            }
+            if (tile == null) {
+                // Offline and never seen: the page just leaves this tile blank
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "image/png");
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=86400");
+            exchange.sendResponseHeaders(200, tile.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(tile);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] fetchUpstream(String z, String x, String y) {
+        String url = upstream.replace("{z}", z).replace("{x}", x).replace("{y}", y);
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(5))
+                .header("User-Agent", "SeekHelpDesktop/1.0")
+                .build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() == 200 ? response.body() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
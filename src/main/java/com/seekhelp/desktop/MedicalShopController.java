@@ -7,6 +7,11 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.beans.binding.Bindings;
+import javafx.application.Platform;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.*;
 
 public class MedicalShopController {
@@ -14,14 +19,54 @@ public class MedicalShopController {
     private MainController mainController;
     private VBox medicalShopView;
     private ScrollPane scrollPane;
-    private TableView<Medicine> cartTable;
-    private VBox productsContainer;
+    private TableView<ShoppingCart.CartLine> cartTable;
+    private ListView<Integer> productGrid;
+    private TextField productSearchField;
+    private ComboBox<String> typeFilter;
+    private TextField minPriceField;
+    private TextField maxPriceField;
+    private ComboBox<String> sortBox;
+    private Label productCountLabel;
     private Label totalLabel;
-    private double totalAmount = 0.0;
+    private Label cartStatusLabel;
+    private Label interactionLabel;
+    private final ShoppingCart cart = new ShoppingCart();
+
+    // Units in the cart are reserved for a while so another checkout cannot sell them
+    private static final Duration CART_HOLD = Duration.ofMinutes(15);
+    private final Inventory inventory;
+    private final Map<Integer, Deque<Inventory.Reservation>> reservations = new HashMap<>();
+
+    // The grid is a list of rows of PRODUCTS_PER_ROW cards; only rows on screen have cards, and they
+    // are reused while scrolling. productResults holds the catalog positions of the current search.
+    private static final int PRODUCTS_PER_ROW = 3;
+    private static final String ALL_TYPES = "All Types";
+    private static final Map<String, ProductCatalog.Sort> SORTS = new LinkedHashMap<>();
+    static {
+        SORTS.put("Name", ProductCatalog.Sort.NAME);
+        SORTS.put("Price: Low to High", ProductCatalog.Sort.PRICE_LOW_TO_HIGH);
+        SORTS.put("Price: High to Low", ProductCatalog.Sort.PRICE_HIGH_TO_LOW);
+    }
+    private ProductCatalog catalog;
+    private int[] productResults = new int[0];
+    private final Map<Integer, ProductCard> visibleCards = new HashMap<>();
+
+    // Drugs in each product, resolved once per product from its name
+    private DrugInteractions drugInteractions;
+    private final Map<Integer, int[]> productDrugs = new HashMap<>();
 
     public MedicalShopController(MainController mainController) {
         this.mainController = mainController;
+        this.inventory = new Inventory(mainController.getTaskScheduler(), this::onReservationExpired);
         initializeMedicalShopView();
+        mainController.getDrugInteractions().whenComplete((loaded, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Failed to load drug interactions: " + error.getMessage());
+                return;
+            }
+            drugInteractions = loaded;
+            updateInteractions();
+        }));
     }
 
     private void initializeMedicalShopView() {
@@ -158,14 +203,57 @@ public class MedicalShopController {
         sectionTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
         sectionTitle.setTextFill(Color.valueOf("#1f2937"));
 
+        // Search, filters and sort over the whole catalog
+        HBox filterRow = new HBox(10);
+        filterRow.setAlignment(Pos.CENTER_LEFT);
+
+        productSearchField = new TextField();
+        productSearchField.setPromptText("🔍 Search medicines...");
+        productSearchField.setPrefWidth(250);
+        productSearchField.textProperty().addListener((observable, oldText, newText) -> applyProductFilters());
+
+        typeFilter = new ComboBox<>();
+        typeFilter.getItems().add(ALL_TYPES);
+        typeFilter.setValue(ALL_TYPES);
+        typeFilter.setPrefWidth(140);
+        typeFilter.setOnAction(e -> applyProductFilters());
+
+        minPriceField = new TextField();
+        minPriceField.setPromptText("Min ₹");
+        minPriceField.setPrefWidth(80);
+        minPriceField.textProperty().addListener((observable, oldText, newText) -> applyProductFilters());
+
+        maxPriceField = new TextField();
+        maxPriceField.setPromptText("Max ₹");
+        maxPriceField.setPrefWidth(80);
+        maxPriceField.textProperty().addListener((observable, oldText, newText) -> applyProductFilters());
+
+        sortBox = new ComboBox<>();
+        sortBox.getItems().addAll(SORTS.keySet());
+        sortBox.setValue("Name");
+        sortBox.setPrefWidth(160);
+        sortBox.setOnAction(e -> applyProductFilters());
+
+        filterRow.getChildren().addAll(productSearchField, typeFilter, minPriceField, maxPriceField, sortBox);
+
+        productCountLabel = new Label();
+        productCountLabel.setFont(Font.font("System", 12));
+        productCountLabel.setTextFill(Color.valueOf("#6b7280"));
+
         // Products grid
-        productsContainer = new VBox();
-        productsContainer.setSpacing(15);
+        productGrid = new ListView<>();
+        productGrid.getStyleClass().add("product-grid");
+        productGrid.setPrefHeight(620);
+        productGrid.setMinHeight(620);
+        productGrid.setFixedCellSize(230);
+        productGrid.setFocusTraversable(false);
+        productGrid.setPlaceholder(new Label("Loading products..."));
+        productGrid.setCellFactory(list -> new ProductRowCell());
 
         // Load products
         loadProducts();
 
-        section.getChildren().addAll(sectionTitle, productsContainer);
+        section.getChildren().addAll(sectionTitle, filterRow, productCountLabel, productGrid);
         return section;
     }
 
@@ -179,30 +267,44 @@ public class MedicalShopController {
         sectionTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
         sectionTitle.setTextFill(Color.valueOf("#1f2937"));
 
-        // Cart table
-        cartTable = new TableView<>();
+        // Cart table; quantity and total cells follow their own row, so a change redraws only that row
+        cartTable = new TableView<>(cart.getLines());
         cartTable.setPrefHeight(200);
 
-        TableColumn<Medicine, String> nameCol = new TableColumn<>("Medicine");
-        nameCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getName()));
+        TableColumn<ShoppingCart.CartLine, String> nameCol = new TableColumn<>("Medicine");
+        nameCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getProduct().getName()));
+
+        TableColumn<ShoppingCart.CartLine, String> priceCol = new TableColumn<>("Price");
+        priceCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty("₹" + data.getValue().getProduct().getPrice()));
 
-        TableColumn<Medicine, String> priceCol = new TableColumn<>("Price");
-        priceCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty("₹" + data.getValue().getPrice()));
+        TableColumn<ShoppingCart.CartLine, String> quantityCol = new TableColumn<>("Quantity");
+        quantityCol.setCellValueFactory(data -> data.getValue().quantityProperty().asString());
 
-        TableColumn<Medicine, String> quantityCol = new TableColumn<>("Quantity");
-        quantityCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(String.valueOf(data.getValue().getQuantity())));
+        TableColumn<ShoppingCart.CartLine, String> totalCol = new TableColumn<>("Total");
+        totalCol.setCellValueFactory(data -> Bindings.concat("₹", data.getValue().lineTotalProperty()));
 
-        TableColumn<Medicine, String> totalCol = new TableColumn<>("Total");
-        totalCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty("₹" + (data.getValue().getPrice() * data.getValue().getQuantity())));
+        TableColumn<ShoppingCart.CartLine, ShoppingCart.CartLine> removeCol = new TableColumn<>();
+        removeCol.setCellValueFactory(data -> new javafx.beans.property.ReadOnlyObjectWrapper<>(data.getValue()));
+        removeCol.setCellFactory(column -> new RemoveOneCell());
+        removeCol.setSortable(false);
 
-        cartTable.getColumns().addAll(nameCol, priceCol, quantityCol, totalCol);
+        cartTable.getColumns().addAll(nameCol, priceCol, quantityCol, totalCol, removeCol);
 
         // Total amount
         totalLabel = new Label("Total: ₹0.00");
         totalLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
         totalLabel.setTextFill(Color.valueOf("#1f2937"));
 
-        section.getChildren().addAll(sectionTitle, cartTable, totalLabel);
+        cartStatusLabel = new Label();
+        cartStatusLabel.setFont(Font.font("System", 12));
+        cartStatusLabel.setTextFill(Color.valueOf("#dc2626"));
+
+        interactionLabel = new Label();
+        interactionLabel.setFont(Font.font("System", FontWeight.BOLD, 12));
+        interactionLabel.setTextFill(Color.valueOf("#b45309"));
+        interactionLabel.setWrapText(true);
+
+        section.getChildren().addAll(sectionTitle, cartTable, totalLabel, cartStatusLabel, interactionLabel);
         return section;
     }
 
@@ -303,100 +405,279 @@ public class MedicalShopController {
         return section;
     }
 
+    // The shared catalog; its stock is registered with the inventory off the FX thread before the grid shows it
     private void loadProducts() {
-        List<Medicine> products = Arrays.asList(
-            new Medicine("Paracetamol 500mg", "Fever & pain relief", 15.0, "OTC", 100),
-            new Medicine("Ibuprofen 400mg", "Inflammation & pain", 25.0, "OTC", 50),
-            new Medicine("Cetirizine 10mg", "Allergy relief", 30.0, "OTC", 75),
-            new Medicine("Omeprazole 20mg", "Acid reflux", 45.0, "Prescription", 25),
-            new Medicine("Metformin 500mg", "Diabetes", 35.0, "Prescription", 30),
-            new Medicine("Amoxicillin 500mg", "Antibiotic", 80.0, "Prescription", 20),
-            new Medicine("Vitamin D3", "Bone health", 120.0, "OTC", 60),
-            new Medicine("Iron Supplements", "Anemia", 95.0, "OTC", 40),
-            new Medicine("First Aid Kit", "Emergency supplies", 250.0, "OTC", 15),
-            new Medicine("Digital Thermometer", "Temperature monitoring", 180.0, "OTC", 25),
-            new Medicine("Blood Pressure Monitor", "BP monitoring", 1200.0, "OTC", 10),
-            new Medicine("Glucose Monitor", "Diabetes monitoring", 800.0, "OTC", 8)
-        );
+        mainController.getProductCatalog().thenCompose(opened ->
+            mainController.getTaskScheduler().submit(null, "catalog-stock", () -> {
+                for (int i = 0; i < opened.size(); i++) {
+                    inventory.register(opened.getId(i), opened.getStock(i));
+                }
+                return opened;
+            })
+        ).whenComplete((opened, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Failed to open the product catalog: " + error.getMessage());
+                productGrid.setPlaceholder(new Label("Products are unavailable."));
+                return;
+            }
+            catalog = opened;
+            typeFilter.getItems().addAll(opened.getTypes());
+            productGrid.setPlaceholder(new Label("No products match your search."));
+            applyProductFilters();
+        }));
+    }
 
-        GridPane productsGrid = new GridPane();
-        productsGrid.setHgap(20);
-        productsGrid.setVgap(20);
-
-        int row = 0, col = 0;
-        for (Medicine product : products) {
-            VBox productCard = createProductCard(product);
-            productsGrid.add(productCard, col, row);
-            
-            col++;
-            if (col > 2) {
-                col = 0;
-                row++;
+    // Runs the search and resets the grid to the first row of the new results
+    private void applyProductFilters() {
+        if (catalog == null) {
+            return;
+        }
+        BigDecimal minPrice;
+        BigDecimal maxPrice;
+        try {
+            minPrice = parsePrice(minPriceField.getText());
+            maxPrice = parsePrice(maxPriceField.getText());
+        } catch (NumberFormatException e) {
+            productCountLabel.setText("Enter prices as numbers, e.g. 50 or 99.50");
+            return;
+        }
+        String type = ALL_TYPES.equals(typeFilter.getValue()) ? null : typeFilter.getValue();
+        productResults = catalog.search(productSearchField.getText(), type, minPrice, maxPrice, SORTS.get(sortBox.getValue()));
+
+        int rows = (productResults.length + PRODUCTS_PER_ROW - 1) / PRODUCTS_PER_ROW;
+        List<Integer> rowIndexes = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            rowIndexes.add(row);
+        }
+        productGrid.getItems().setAll(rowIndexes);
+        // Row numbers alone may not change, so redraw the visible rows from the new results
+        productGrid.refresh();
+        productGrid.scrollTo(0);
+        productCountLabel.setText(productResults.length + (productResults.length == 1 ? " product" : " products")
+            + " of " + catalog.size());
+    }
+
+    private static BigDecimal parsePrice(String text) {
+        String trimmed = text == null ? "" : text.trim();
+        return trimmed.isEmpty() ? null : new BigDecimal(trimmed);
+    }
+
+    // One grid row; its cards are created with the cell and refilled as it is reused
+    private class ProductRowCell extends ListCell<Integer> {
+        private final HBox row = new HBox(20);
+        private final ProductCard[] cards = new ProductCard[PRODUCTS_PER_ROW];
+
+        ProductRowCell() {
+            for (int i = 0; i < cards.length; i++) {
+                cards[i] = new ProductCard();
+                HBox.setHgrow(cards[i].card, Priority.ALWAYS);
+                row.getChildren().add(cards[i].card);
             }
         }
 
-        productsContainer.getChildren().add(productsGrid);
+        @Override
+        protected void updateItem(Integer rowIndex, boolean empty) {
+            super.updateItem(rowIndex, empty);
+            for (int i = 0; i < cards.length; i++) {
+                int position = empty || rowIndex == null ? -1 : rowIndex * PRODUCTS_PER_ROW + i;
+                if (position >= 0 && position < productResults.length) {
+                    cards[i].show(catalog.get(productResults[position]));
+                } else {
+                    cards[i].clear();
+                }
+            }
+            setGraphic(empty ? null : row);
+        }
     }
 
-    private VBox createProductCard(Medicine product) {
-        VBox card = new VBox();
-        card.setSpacing(10);
-        card.setPadding(new Insets(15));
-        card.getStyleClass().add("product-card");
+    private class ProductCard {
+        private final VBox card = new VBox();
+        private final Label nameLabel = new Label();
+        private final Label descLabel = new Label();
+        private final Label priceLabel = new Label();
+        private final Label stockLabel = new Label();
+        private final Label typeLabel = new Label();
+        private final Button addButton = new Button("Add to Cart");
+        private Medicine product;
+
+        ProductCard() {
+            card.setSpacing(10);
+            card.setPadding(new Insets(15));
+            card.getStyleClass().add("product-card");
+            card.setMaxWidth(Double.MAX_VALUE);
+            card.setPrefWidth(0);
 
-        Label nameLabel = new Label(product.getName());
-        nameLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
-        nameLabel.setWrapText(true);
+            nameLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
+            nameLabel.setWrapText(true);
 
-        Label descLabel = new Label(product.getDescription());
-        descLabel.setFont(Font.font("System", 12));
-        descLabel.setTextFill(Color.valueOf("#6b7280"));
-        descLabel.setWrapText(true);
+            descLabel.setFont(Font.font("System", 12));
+            descLabel.setTextFill(Color.valueOf("#6b7280"));
+            descLabel.setWrapText(true);
 
-        Label priceLabel = new Label("₹" + product.getPrice());
-        priceLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
-        priceLabel.setTextFill(Color.valueOf("#059669"));
+            priceLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
+            priceLabel.setTextFill(Color.valueOf("#059669"));
 
-        Label stockLabel = new Label("Stock: " + product.getStock());
-        stockLabel.setFont(Font.font("System", 10));
-        stockLabel.setTextFill(Color.valueOf("#6b7280"));
+            stockLabel.setFont(Font.font("System", 10));
+            stockLabel.setTextFill(Color.valueOf("#6b7280"));
 
-        Label typeLabel = new Label(product.getType());
-        typeLabel.setFont(Font.font("System", 10));
-        typeLabel.setTextFill(product.getType().equals("Prescription") ? Color.valueOf("#dc2626") : Color.valueOf("#059669"));
+            typeLabel.setFont(Font.font("System", 10));
 
-        Button addButton = new Button("Add to Cart");
-        addButton.getStyleClass().add("add-to-cart-button");
-        addButton.setOnAction(e -> addToCart(product));
+            addButton.getStyleClass().add("add-to-cart-button");
+            addButton.setOnAction(e -> addToCart(product));
 
-        card.getChildren().addAll(nameLabel, descLabel, priceLabel, stockLabel, typeLabel, addButton);
-        return card;
+            card.getChildren().addAll(nameLabel, descLabel, priceLabel, stockLabel, typeLabel, addButton);
+        }
+
+        void show(Medicine shown) {
+            clear();
+            product = shown;
+            visibleCards.put(shown.getId(), this);
+            nameLabel.setText(shown.getName());
+            descLabel.setText(shown.getDescription());
+            priceLabel.setText("₹" + shown.getPrice());
+            typeLabel.setText(shown.getType());
+            typeLabel.setTextFill(shown.getType().equals("Prescription") ? Color.valueOf("#dc2626") : Color.valueOf("#059669"));
+            refreshStock();
+            card.setVisible(true);
+        }
+
+        void clear() {
+            if (product != null) {
+                visibleCards.remove(product.getId(), this);
+                product = null;
+            }
+            card.setVisible(false);
+        }
+
+        void refreshStock() {
+            stockLabel.setText("Stock: " + inventory.getAvailable(product.getId()));
+        }
     }
 
     private void addToCart(Medicine product) {
-        // Check if already in cart
-        for (Medicine item : cartTable.getItems()) {
-            if (item.getName().equals(product.getName())) {
-                item.setQuantity(item.getQuantity() + 1);
-                updateTotal();
-                cartTable.refresh();
-                return;
-            }
+        Inventory.Reservation reservation = inventory.reserve(product.getId(), 1, CART_HOLD);
+        if (reservation == null) {
+            mainController.showNotification("Out of Stock", product.getName() + " is out of stock.");
+            return;
+        }
+        reservations.computeIfAbsent(product.getId(), id -> new ArrayDeque<>()).add(reservation);
+        boolean newLine = cart.add(product, 1) == 1;
+        cartStatusLabel.setText("");
+        updateStock(product.getId());
+        updateTotal();
+        if (newLine) {
+            warnAboutInteractions(product);
         }
+    }
 
-        // Add new item to cart
-        Medicine cartItem = new Medicine(product.getName(), product.getDescription(), product.getPrice(), product.getType(), product.getStock());
-        cartItem.setQuantity(1);
-        cartTable.getItems().add(cartItem);
+    // Takes one unit out of the cart and gives its hold back to the inventory
+    private void removeFromCart(Medicine product) {
+        Deque<Inventory.Reservation> held = reservations.get(product.getId());
+        Inventory.Reservation reservation = held == null ? null : held.pollLast();
+        if (reservation == null) {
+            return;
+        }
+        if (held.isEmpty()) {
+            reservations.remove(product.getId());
+        }
+        inventory.release(reservation);
+        boolean lineRemoved = cart.add(product, -reservation.getQuantity()) == 0;
+        cartStatusLabel.setText("");
+        updateStock(product.getId());
         updateTotal();
+        if (lineRemoved) {
+            updateInteractions();
+        }
     }
 
-    private void updateTotal() {
-        totalAmount = 0.0;
-        for (Medicine item : cartTable.getItems()) {
-            totalAmount += item.getPrice() * item.getQuantity();
+    // "−" button on each cart row, removing one unit
+    private class RemoveOneCell extends TableCell<ShoppingCart.CartLine, ShoppingCart.CartLine> {
+        private final Button button = new Button("−");
+
+        RemoveOneCell() {
+            button.setOnAction(e -> {
+                if (getItem() != null) {
+                    removeFromCart(getItem().getProduct());
+                }
+            });
+        }
+
+        @Override
+        protected void updateItem(ShoppingCart.CartLine line, boolean empty) {
+            super.updateItem(line, empty);
+            setGraphic(empty || line == null ? null : button);
         }
-        totalLabel.setText("Total: ₹" + String.format("%.2f", totalAmount));
+    }
+
+    // Only a product new to the cart can bring a new interaction
+    private void warnAboutInteractions(Medicine added) {
+        if (drugInteractions == null) {
+            return;
+        }
+        List<DrugInteractions.Interaction> found = drugInteractions.check(drugsIn(added), cartDrugs(added.getId()));
+        updateInteractions();
+        if (!found.isEmpty()) {
+            StringBuilder message = new StringBuilder(added.getName() + " may interact with medicines in your cart:\n");
+            for (DrugInteractions.Interaction interaction : found) {
+                message.append("\n• ").append(interaction.describe());
+            }
+            message.append("\n\nPlease check with your pharmacist or doctor before taking them together.");
+            mainController.showNotification("Drug Interaction Warning", message.toString());
+        }
+    }
+
+    // Lists every interaction among the cart's medicines under the cart
+    private void updateInteractions() {
+        if (drugInteractions == null) {
+            return;
+        }
+        List<DrugInteractions.Interaction> found = drugInteractions.check(cartDrugs(0));
+        StringBuilder text = new StringBuilder();
+        for (DrugInteractions.Interaction interaction : found) {
+            text.append(text.length() == 0 ? "" : "\n").append("⚠️ ").append(interaction.describe());
+        }
+        interactionLabel.setText(text.toString());
+    }
+
+    private int[] drugsIn(Medicine product) {
+        return productDrugs.computeIfAbsent(product.getId(), id -> drugInteractions.resolve(product.getName()));
+    }
+
+    // Distinct drugs of the cart's products, leaving out the given product id (0 leaves out none)
+    private int[] cartDrugs(int exceptProductId) {
+        return cart.getLines().stream()
+            .filter(line -> line.getProduct().getId() != exceptProductId)
+            .flatMapToInt(line -> Arrays.stream(drugsIn(line.getProduct())))
+            .distinct()
+            .toArray();
+    }
+
+    // Called on a scheduler worker when a cart hold runs out
+    private void onReservationExpired(Inventory.Reservation reservation) {
+        Platform.runLater(() -> {
+            Deque<Inventory.Reservation> held = reservations.get(reservation.getSku());
+            if (held == null || !held.remove(reservation)) {
+                return;
+            }
+            Medicine product = catalog.findById(reservation.getSku());
+            cart.add(product, -reservation.getQuantity());
+            cartStatusLabel.setText("⏱ Your reservation of " + product.getName() + " expired and it was removed from the cart.");
+            updateStock(reservation.getSku());
+            updateTotal();
+            updateInteractions();
+        });
+    }
+
+    // Only a card on screen shows stock; an off-screen one reads it when scrolled into view
+    private void updateStock(int productId) {
+        ProductCard card = visibleCards.get(productId);
+        if (card != null) {
+            card.refreshStock();
+        }
+    }
+
+    private void updateTotal() {
+        totalLabel.setText("Total: ₹" + cart.getTotal().setScale(2, RoundingMode.HALF_UP).toPlainString());
     }
 
     private void uploadPrescription() {
@@ -404,11 +685,37 @@ public class MedicalShopController {
     }
 
     private void proceedToCheckout() {
-        if (cartTable.getItems().isEmpty()) {
+        if (cart.isEmpty()) {
             mainController.showNotification("Empty Cart", "Please add items to your cart before checkout.");
             return;
         }
-        mainController.showNotification("Checkout", "Proceeding to checkout... Order will be processed soon.");
+
+        // Commit every hold; one that expired just now is left out of the order
+        int ordered = 0;
+        List<String> expired = new ArrayList<>();
+        for (Map.Entry<Integer, Deque<Inventory.Reservation>> entry : reservations.entrySet()) {
+            for (Inventory.Reservation reservation : entry.getValue()) {
+                if (inventory.commit(reservation)) {
+                    ordered += reservation.getQuantity();
+                } else {
+                    expired.add(catalog.findById(entry.getKey()).getName());
+                }
+            }
+            updateStock(entry.getKey());
+        }
+        reservations.clear();
+        cart.clear();
+        cartStatusLabel.setText("");
+        updateTotal();
+        updateInteractions();
+
+        String message = ordered == 0
+            ? "Your order could not be placed."
+            : "Order placed for " + ordered + (ordered == 1 ? " item" : " items") + ". Order will be processed soon.";
+        if (!expired.isEmpty()) {
+            message += "\nNot included (reservation expired): " + String.join(", ", new LinkedHashSet<>(expired));
+        }
+        mainController.showNotification("Checkout", message);
     }
 
     public VBox getMedicalShopView() {
@@ -419,27 +726,27 @@ public class MedicalShopController {
         return scrollPane;
     }
 
-    // Inner class for medicine data
+    // Inner class for medicine data; quantities in the cart are kept by ShoppingCart
     public static class Medicine {
+        private int id;
         private String name, description, type;
-        private double price;
-        private int stock, quantity;
+        private BigDecimal price;
+        private int stock;
 
-        public Medicine(String name, String description, double price, String type, int stock) {
+        public Medicine(int id, String name, String description, BigDecimal price, String type, int stock) {
+            this.id = id;
             this.name = name;
             this.description = description;
             this.price = price;
             this.type = type;
             this.stock = stock;
-            this.quantity = 1;
         }
 
+        public int getId() { return id; }
         public String getName() { return name; }
         public String getDescription() { return description; }
-        public double getPrice() { return price; }
+        public BigDecimal getPrice() { return price; }
         public String getType() { return type; }
         public int getStock() { return stock; }
-        public int getQuantity() { return quantity; }
-        public void setQuantity(int quantity) { this.quantity = quantity; }
     }
 }
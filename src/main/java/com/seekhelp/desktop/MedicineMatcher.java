@@ -0,0 +1,86 @@
+package com.seekhelp.desktop;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Finds catalog medicines in recognized prescription text, one per line at most. Each longer word of a
+// line is looked up in the catalog's name index (which tolerates OCR typos); a candidate scores the
+// share of its name words found in the line, allowing one wrong letter in longer words, so
+// "Paracetamol 500mg" beats "Paracetamol 650mg" on a line reading "Tab. Paracetamo1 500mg 1-0-1".
+public class MedicineMatcher {
+
+    private static final int MIN_WORD_LENGTH = 4;
+    private static final int MAX_CANDIDATES_PER_WORD = 50;
+    private static final double MIN_SCORE = 0.5;
+
+    private final ProductCatalog catalog;
+
+    public MedicineMatcher(ProductCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public List<Match> match(String text) {
+        List<Match> matches = new ArrayList<>();
+        Set<Integer> found = new HashSet<>();
+        for (String line : text.split("\\R")) {
+            List<String> words = TextTokens.tokenize(line);
+            int best = -1;
+            double bestScore = 0;
+            for (String word : words) {
+                if (word.length() < MIN_WORD_LENGTH || Character.isDigit(word.charAt(0))) {
+                    continue;
+                }
+                int[] candidates = catalog.search(word, null, null, null, ProductCatalog.Sort.NAME);
+                for (int i = 0; i < candidates.length && i < MAX_CANDIDATES_PER_WORD; i++) {
+                    double score = score(TextTokens.tokenize(catalog.get(candidates[i]).getName()), words);
+                    if (score >= MIN_SCORE && score > bestScore) {
+                        bestScore = score;
+                        best = candidates[i];
+                    }
+                }
+            }
+            if (best >= 0) {
+                MedicalShopController.Medicine medicine = catalog.get(best);
+                if (found.add(medicine.getId())) {
+                    matches.add(new Match(medicine, line.trim(), bestScore));
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Share of the name's words that appear in the line
+    private static double score(List<String> nameWords, List<String> lineWords) {
+        int present = 0;
+        for (String nameWord : nameWords) {
+            int allowedEdits = nameWord.length() >= 5 ? 1 : 0;
+            for (String lineWord : lineWords) {
+                if (lineWord.length() >= nameWord.length() - allowedEdits
+                        && lineWord.length() <= nameWord.length() + allowedEdits
+                        && ProductCatalog.prefixDistance(lineWord, nameWord, allowedEdits) <= allowedEdits) {
+                    present++;
+                    break;
+                }
+            }
+        }
+        return nameWords.isEmpty() ? 0 : (double) present / nameWords.size();
+    }
+
+    public static class Match {
+        private final MedicalShopController.Medicine medicine;
+        private final String line;
+        private final double score;
+
+        Match(MedicalShopController.Medicine medicine, String line, double score) {
+            this.medicine = medicine;
+            this.line = line;
+            this.score = score;
+        }
+
+        public MedicalShopController.Medicine getMedicine() { return medicine; }
+        public String getLine() { return line; }
+        public double getScore() { return score; }
+    }
+}
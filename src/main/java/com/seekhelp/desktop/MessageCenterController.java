@@ -10,6 +10,7 @@ import javafx.scene.text.FontWeight;
 import javafx.scene.web.WebView;
 import javafx.scene.web.WebEngine;
 import javafx.application.Platform;
+import java.io.IOException;
 import java.util.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -23,21 +24,28 @@ public class MessageCenterController {
     private TextArea messageInput;
     private ComboBox<String> recipientCombo;
     private ComboBox<String> priorityCombo;
+    private TextField searchField;
+    private ComboBox<String> senderFilter;
+    private ComboBox<String> priorityFilter;
+    private Button loadMoreButton;
     private VBox customerCareContainer;
     private WebView chatWebView;
     private WebEngine chatWebEngine;
+    private LiveChatBridge chatBridge;
     private VBox chatPlaceholder;
+    private final IntentEngine agentIntents = IntentEngine.load("/intents/support-agent.json");
 
-    // Message data
-    private List<Message> messages;
-    private List<CustomerCareTicket> supportTickets;
+    // Message data; messages are read from the log a page at a time
+    private static final int MESSAGE_PAGE_SIZE = 20;
+    private MessageLog messageLog;
+    private int messageCursor = Integer.MAX_VALUE;
+    private static final int TICKET_PAGE_SIZE = 20;
+    private final SupportTicketQueue ticketQueue = new SupportTicketQueue(System.currentTimeMillis());
 
     public MessageCenterController(MainController mainController) {
         this.mainController = mainController;
-        this.messages = new ArrayList<>();
-        this.supportTickets = new ArrayList<>();
         initializeMessageCenterView();
-        loadSampleData();
+        openMessageLog();
     }
 
     private void initializeMessageCenterView() {
@@ -78,6 +86,13 @@ public class MessageCenterController {
         );
 
         scrollPane.setContent(messageCenterView);
+
+        // Build the chat WebView right after the page is first shown, so its page has loaded by the first message
+        scrollPane.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null && chatWebView == null) {
+                Platform.runLater(this::initializeChatWebView);
+            }
+        });
     }
 
     private VBox createHeader() {
@@ -185,7 +200,34 @@ public class MessageCenterController {
         messagesTitle.setFont(Font.font("System", FontWeight.BOLD, 16));
         messagesTitle.setTextFill(Color.valueOf("#1f2937"));
 
-        section.getChildren().addAll(sectionTitle, inputArea, messagesTitle, messagesContainer);
+        // Search and filters over the whole history
+        HBox filterRow = new HBox(10);
+        filterRow.setAlignment(Pos.CENTER_LEFT);
+
+        searchField = new TextField();
+        searchField.setPromptText("🔍 Search messages...");
+        searchField.setPrefWidth(250);
+        searchField.textProperty().addListener((observable, oldText, newText) -> displayMessages());
+
+        senderFilter = new ComboBox<>();
+        senderFilter.getItems().add("Anyone");
+        senderFilter.setValue("Anyone");
+        senderFilter.setPrefWidth(200);
+        senderFilter.setOnAction(e -> displayMessages());
+
+        priorityFilter = new ComboBox<>();
+        priorityFilter.getItems().addAll("All Priorities", "Normal", "Urgent", "Emergency");
+        priorityFilter.setValue("All Priorities");
+        priorityFilter.setPrefWidth(130);
+        priorityFilter.setOnAction(e -> displayMessages());
+
+        filterRow.getChildren().addAll(searchField, senderFilter, priorityFilter);
+
+        loadMoreButton = new Button("Load older messages");
+        loadMoreButton.getStyleClass().add("secondary-button");
+        loadMoreButton.setOnAction(e -> loadMoreMessages());
+
+        section.getChildren().addAll(sectionTitle, inputArea, messagesTitle, filterRow, messagesContainer);
         return section;
     }
 
@@ -273,7 +315,7 @@ public class MessageCenterController {
         chatPlaceholder.setAlignment(Pos.CENTER);
         chatPlaceholder.setStyle("-fx-background-color: #f8fafc; -fx-border-color: #e5e7eb; -fx-border-radius: 8;");
         
-        Label placeholderLabel = new Label("💬 Live Chat Interface\nClick 'Start Chat' to initialize");
+        Label placeholderLabel = new Label("💬 Live Chat Interface\nLoading chat...");
         placeholderLabel.setFont(Font.font("System", 14));
         placeholderLabel.setTextFill(Color.valueOf("#6b7280"));
         placeholderLabel.setAlignment(Pos.CENTER);
@@ -345,6 +387,10 @@ public class MessageCenterController {
     }
 
     private void sendMessage() {
+        if (messageLog == null) {
+            mainController.showNotification("Please Wait", "Message history is still loading.");
+            return;
+        }
         String recipient = recipientCombo.getValue();
         String priority = priorityCombo.getValue();
         String messageText = messageInput.getText().trim();
@@ -368,7 +414,13 @@ public class MessageCenterController {
             LocalDateTime.now()
         );
 
-        messages.add(0, message); // Add to beginning
+        try {
+            messageLog.appendMessage(message);
+        } catch (IOException e) {
+            mainController.showError("Message Not Saved", "The message could not be saved: " + e.getMessage());
+            return;
+        }
+        refreshSenderFilter();
         displayMessages();
 
         // Clear input
@@ -380,6 +432,10 @@ public class MessageCenterController {
     }
 
     private void createSupportTicket(String issueType, String subject) {
+        if (messageLog == null) {
+            mainController.showNotification("Please Wait", "Message history is still loading.");
+            return;
+        }
         if (subject.trim().isEmpty()) {
             mainController.showNotification("Error", "Please enter a subject for the ticket.");
             return;
@@ -393,7 +449,13 @@ public class MessageCenterController {
             LocalDateTime.now()
         );
 
-        supportTickets.add(0, ticket);
+        try {
+            messageLog.appendTicket(ticket);
+        } catch (IOException e) {
+            mainController.showError("Ticket Not Saved", "The support ticket could not be saved: " + e.getMessage());
+            return;
+        }
+        ticketQueue.update(ticket);
         displaySupportTickets();
 
         mainController.showNotification("Ticket Created", "Support ticket created successfully. Ticket ID: " + ticket.getId());
@@ -404,132 +466,54 @@ public class MessageCenterController {
             return;
         }
 
-        // Initialize WebView if not already done
-        if (chatWebView == null) {
-            initializeChatWebView();
-            // Wait a bit for the WebView to initialize
-            new Thread(() -> {
-                try {
-                    Thread.sleep(500);
-                    Platform.runLater(() -> sendChatMessage(message, inputField));
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
-            return;
-        }
-
-        // Add user message to chat
-        String userMessageHtml = "<div class='message user-message'><strong>You:</strong> " + message + "</div>";
-        if (chatWebEngine != null) {
-            chatWebEngine.executeScript("document.getElementById('chatMessages').innerHTML += '" + userMessageHtml + "';");
-        }
+        // Add user message to chat; the bridge holds it until the chat page has loaded
+        initializeChatWebView();
+        chatBridge.append("You", message, true);
 
         // Simulate agent response
         String agentResponse = getAgentResponse(message);
-        String agentMessageHtml = "<div class='message agent-message'><strong>Support Agent:</strong> " + agentResponse + "</div>";
-        
+
         // Delay the response to simulate real chat
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000);
-                Platform.runLater(() -> {
-                    if (chatWebEngine != null) {
-                        chatWebEngine.executeScript("document.getElementById('chatMessages').innerHTML += '" + agentMessageHtml + "';");
-                        chatWebEngine.executeScript("document.getElementById('chatMessages').scrollTop = document.getElementById('chatMessages').scrollHeight;");
-                    }
-                });
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+        mainController.getTaskScheduler().runLater("MessageCenter", "agent-reply", java.time.Duration.ofSeconds(1),
+            () -> chatBridge.append("Support Agent", agentResponse, false));
 
         inputField.clear();
     }
 
     private String getAgentResponse(String userMessage) {
-        String lowerMessage = userMessage.toLowerCase();
-        
-        if (lowerMessage.contains("hello") || lowerMessage.contains("hi")) {
-            return "Hello! How can I assist you today?";
-        } else if (lowerMessage.contains("help")) {
-            return "I'm here to help! What specific issue are you experiencing?";
-        } else if (lowerMessage.contains("appointment")) {
-            return "I can help you schedule an appointment. Would you like me to connect you with our scheduling system?";
-        } else if (lowerMessage.contains("billing") || lowerMessage.contains("payment")) {
-            return "For billing questions, I can connect you with our billing department. What's your specific concern?";
-        } else if (lowerMessage.contains("technical") || lowerMessage.contains("bug")) {
-            return "I understand you're having a technical issue. Let me create a support ticket for you.";
-        } else {
-            return "Thank you for your message. I'll do my best to help you. Could you provide more details?";
-        }
+        return agentIntents.respond(userMessage);
     }
 
     private void startLiveChat() {
         mainController.showNotification("Live Chat", "Live chat session started. An agent will be with you shortly.");
         
-        // Initialize WebView if not already done
-        if (chatWebView == null) {
-            initializeChatWebView();
-        }
-        
         // Update chat status
-        if (chatWebEngine != null) {
-            String statusUpdate = "document.querySelector('.chat-header').innerHTML = '<strong>🟢 Live Chat Support</strong> - Connected to agent';";
-            chatWebEngine.executeScript(statusUpdate);
-        }
+        initializeChatWebView();
+        chatBridge.setState("Connected to agent");
     }
     
+    // Called on the FX thread; does nothing once the WebView exists
     private void initializeChatWebView() {
-        // Create WebView on JavaFX thread
-        Platform.runLater(() -> {
-            chatWebView = new WebView();
-            chatWebEngine = chatWebView.getEngine();
-            chatWebView.setPrefHeight(250);
-            chatWebView.getStyleClass().add("chat-web-view");
-
-            // Load chat interface
-            String chatHtml = """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <title>Live Chat</title>
-                    <style>
-                        body { margin: 0; padding: 10px; font-family: Arial, sans-serif; }
-                        .chat-header { background: #059669; color: white; padding: 10px; border-radius: 5px; margin-bottom: 10px; }
-                        .chat-messages { height: 180px; overflow-y: auto; border: 1px solid #e5e7eb; padding: 10px; background: white; }
-                        .message { margin: 5px 0; padding: 8px; border-radius: 5px; }
-                        .user-message { background: #dbeafe; text-align: right; }
-                        .agent-message { background: #f3f4f6; }
-                        .status { color: #059669; font-size: 12px; }
-                    </style>
-                </head>
-                <body>
-                    <div class="chat-header">
-                        <strong>🟢 Live Chat Support</strong> - Agent available
-                    </div>
-                    <div class="chat-messages" id="chatMessages">
-                        <div class="message agent-message">
-                            <strong>Support Agent:</strong> Hello! How can I help you today?
-                        </div>
-                    </div>
-                    <div class="status">
-                        💬 Type your message below to start chatting
-                    </div>
-                </body>
-                </html>
-                """;
-            chatWebEngine.loadContent(chatHtml);
-            
-            // Replace placeholder with WebView
-            if (chatPlaceholder != null && chatPlaceholder.getParent() != null) {
-                VBox parent = (VBox) chatPlaceholder.getParent();
-                int index = parent.getChildren().indexOf(chatPlaceholder);
-                if (index >= 0) {
-                    parent.getChildren().set(index, chatWebView);
-                }
+        if (chatWebView != null) {
+            return;
+        }
+        chatWebView = new WebView();
+        chatWebEngine = chatWebView.getEngine();
+        chatWebView.setPrefHeight(250);
+        chatWebView.getStyleClass().add("chat-web-view");
+
+        // Load chat interface; messages are queued by the bridge until the page is ready
+        chatBridge = new LiveChatBridge(chatWebEngine, Integer.getInteger("seekhelp.chat.maxMessages", 200));
+        chatBridge.ensurePageLoaded();
+        
+        // Replace placeholder with WebView
+        if (chatPlaceholder != null && chatPlaceholder.getParent() != null) {
+            VBox parent = (VBox) chatPlaceholder.getParent();
+            int index = parent.getChildren().indexOf(chatPlaceholder);
+            if (index >= 0) {
+                parent.getChildren().set(index, chatWebView);
             }
-        });
+        }
     }
 
     private void contactEmergency() {
@@ -552,30 +536,98 @@ public class MessageCenterController {
         // In real implementation, this would open help documentation
     }
 
+    // Shows the first page of messages matching the search and filters
     private void displayMessages() {
         messagesContainer.getChildren().clear();
+        messageCursor = Integer.MAX_VALUE;
 
-        if (messages.isEmpty()) {
-            Label noMessagesLabel = new Label("No messages yet. Send your first message!");
-            noMessagesLabel.setFont(Font.font("System", 14));
-            noMessagesLabel.setTextFill(Color.valueOf("#6b7280"));
-            noMessagesLabel.setAlignment(Pos.CENTER);
-            noMessagesLabel.setPadding(new Insets(20));
-            messagesContainer.getChildren().add(noMessagesLabel);
+        if (messageLog == null) {
+            showMessagesNotice("Loading messages...");
             return;
         }
 
-        for (Message message : messages) {
-            VBox messageCard = createMessageCard(message);
-            messagesContainer.getChildren().add(messageCard);
+        loadMoreMessages();
+        if (messagesContainer.getChildren().isEmpty()) {
+            showMessagesNotice(currentMessageQuery().isEmpty()
+                ? "No messages yet. Send your first message!"
+                : "No messages match your search.");
+        }
+    }
+
+    // Appends the next page below what is already shown
+    private void loadMoreMessages() {
+        messagesContainer.getChildren().remove(loadMoreButton);
+        MessageLog.MessagePage page = messageLog.find(currentMessageQuery(), messageCursor, MESSAGE_PAGE_SIZE);
+        for (Message message : page.getMessages()) {
+            messagesContainer.getChildren().add(createMessageCard(message));
+        }
+        messageCursor = page.getNextCursor();
+        if (page.hasMore()) {
+            messagesContainer.getChildren().add(loadMoreButton);
+        }
+    }
+
+    private MessageLog.Query currentMessageQuery() {
+        String sender = senderFilter.getValue();
+        String priority = priorityFilter.getValue();
+        return new MessageLog.Query(
+            sender == null || sender.equals("Anyone") ? null : sender,
+            priority == null || priority.equals("All Priorities") ? null : priority,
+            null,
+            null,
+            searchField.getText());
+    }
+
+    private void refreshSenderFilter() {
+        for (String sender : messageLog.getSenders()) {
+            if (!senderFilter.getItems().contains(sender)) {
+                senderFilter.getItems().add(sender);
+            }
         }
     }
 
+    private void showMessagesNotice(String text) {
+        Label noMessagesLabel = new Label(text);
+        noMessagesLabel.setFont(Font.font("System", 14));
+        noMessagesLabel.setTextFill(Color.valueOf("#6b7280"));
+        noMessagesLabel.setAlignment(Pos.CENTER);
+        noMessagesLabel.setPadding(new Insets(20));
+        messagesContainer.getChildren().add(noMessagesLabel);
+    }
+
+    private void resolveTicket(CustomerCareTicket ticket) {
+        CustomerCareTicket resolved = new CustomerCareTicket(
+            ticket.getId(), ticket.getType(), ticket.getSubject(), "Resolved", ticket.getCreatedTime());
+        if (messageLog != null) {
+            try {
+                messageLog.appendTicket(resolved);
+            } catch (IOException e) {
+                System.err.println("Failed to save support ticket: " + e.getMessage());
+            }
+        }
+        ticketQueue.update(resolved);
+        publishTicketAlerts();
+        displaySupportTickets();
+    }
+
+    // Runs every second: fires due SLA timers and refreshes the badge and list when a ticket breaches
+    private void checkTicketSlas() {
+        if (ticketQueue.tick(System.currentTimeMillis())) {
+            publishTicketAlerts();
+            displaySupportTickets();
+        }
+    }
+
+    private void publishTicketAlerts() {
+        mainController.getHeaderController().setBreachedTicketCount(ticketQueue.getBreachedCount());
+    }
+
+    // Open tickets in service order: earliest SLA deadline first
     private void displaySupportTickets() {
         customerCareContainer.getChildren().clear();
 
-        if (supportTickets.isEmpty()) {
-            Label noTicketsLabel = new Label("No support tickets yet.");
+        if (ticketQueue.getOpenCount() == 0) {
+            Label noTicketsLabel = new Label("No open support tickets.");
             noTicketsLabel.setFont(Font.font("System", 14));
             noTicketsLabel.setTextFill(Color.valueOf("#6b7280"));
             noTicketsLabel.setAlignment(Pos.CENTER);
@@ -584,10 +636,17 @@ public class MessageCenterController {
             return;
         }
 
-        for (CustomerCareTicket ticket : supportTickets) {
+        for (CustomerCareTicket ticket : ticketQueue.peek(TICKET_PAGE_SIZE)) {
             VBox ticketCard = createTicketCard(ticket);
             customerCareContainer.getChildren().add(ticketCard);
         }
+        if (ticketQueue.getOpenCount() > TICKET_PAGE_SIZE) {
+            Label moreLabel = new Label("Showing the " + TICKET_PAGE_SIZE + " most urgent of "
+                + ticketQueue.getOpenCount() + " open tickets");
+            moreLabel.setFont(Font.font("System", 12));
+            moreLabel.setTextFill(Color.valueOf("#6b7280"));
+            customerCareContainer.getChildren().add(moreLabel);
+        }
     }
 
     private VBox createMessageCard(Message message) {
@@ -653,7 +712,24 @@ public class MessageCenterController {
         timeLabel.setFont(Font.font("System", 10));
         timeLabel.setTextFill(Color.valueOf("#6b7280"));
 
-        header.getChildren().addAll(idLabel, typeLabel, statusLabel, timeLabel);
+        Label slaLabel = new Label();
+        slaLabel.setFont(Font.font("System", FontWeight.BOLD, 10));
+        if (ticketQueue.isBreached(ticket.getId())) {
+            slaLabel.setText("⚠ SLA breached");
+            slaLabel.setTextFill(Color.valueOf("#dc2626"));
+        } else {
+            slaLabel.setText("Due " + ticketQueue.getDeadline(ticket.getId()).format(DateTimeFormatter.ofPattern("MMM dd, HH:mm")));
+            slaLabel.setTextFill(Color.valueOf("#059669"));
+        }
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        Button resolveButton = new Button("✓ Resolve");
+        resolveButton.getStyleClass().add("secondary-button");
+        resolveButton.setOnAction(e -> resolveTicket(ticket));
+
+        header.getChildren().addAll(idLabel, typeLabel, statusLabel, timeLabel, slaLabel, spacer, resolveButton);
 
         // Ticket subject
         Label subjectLabel = new Label(ticket.getSubject());
@@ -664,18 +740,44 @@ public class MessageCenterController {
         return card;
     }
 
-    private void loadSampleData() {
+    // Opens the message log off the FX thread; the page shows a loading notice until it is ready
+    private void openMessageLog() {
+        displayMessages();
+        mainController.getTaskScheduler().submit(null, "message-log-open", () -> {
+            MessageLog log = MessageLog.open(MessageLog.defaultDirectory());
+            if (log.isEmpty()) {
+                loadSampleData(log);
+            }
+            return log;
+        }).whenComplete((log, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Failed to open the message log: " + error.getMessage());
+                messagesContainer.getChildren().clear();
+                showMessagesNotice("Message history is unavailable.");
+                return;
+            }
+            messageLog = log;
+            for (CustomerCareTicket ticket : log.getTickets()) {
+                ticketQueue.update(ticket);
+            }
+            refreshSenderFilter();
+            displayMessages();
+            displaySupportTickets();
+            // App-wide, so breaches are reported whichever page is showing
+            mainController.getTaskScheduler().repeat(null, "ticket-sla", java.time.Duration.ofSeconds(1), this::checkTicketSlas);
+        }));
+    }
+
+    // First run only: seeds the log, oldest first
+    private void loadSampleData(MessageLog log) throws IOException {
         // Load sample messages
-        messages.add(new Message("Dr. Sarah Johnson", "You", "Your test results are ready. Please schedule a follow-up appointment.", "Normal", LocalDateTime.now().minusHours(2)));
-        messages.add(new Message("You", "Dr. Michael Chen", "I have a question about my medication dosage.", "Urgent", LocalDateTime.now().minusHours(4)));
-        messages.add(new Message("Hospital Admin", "You", "Your appointment for tomorrow has been confirmed.", "Normal", LocalDateTime.now().minusDays(1)));
+        log.appendMessage(new Message("Hospital Admin", "You", "Your appointment for tomorrow has been confirmed.", "Normal", LocalDateTime.now().minusDays(1)));
+        log.appendMessage(new Message("You", "Dr. Michael Chen", "I have a question about my medication dosage.", "Urgent", LocalDateTime.now().minusHours(4)));
+        log.appendMessage(new Message("Dr. Sarah Johnson", "You", "Your test results are ready. Please schedule a follow-up appointment.", "Normal", LocalDateTime.now().minusHours(2)));
 
         // Load sample support tickets
-        supportTickets.add(new CustomerCareTicket("TICKET-001", "Technical Issue", "App not loading properly", "Open", LocalDateTime.now().minusHours(1)));
-        supportTickets.add(new CustomerCareTicket("TICKET-002", "Account Problem", "Can't reset password", "In Progress", LocalDateTime.now().minusDays(1)));
-
-        displayMessages();
-        displaySupportTickets();
+        log.appendTicket(new CustomerCareTicket("TICKET-001", "Technical Issue", "App not loading properly", "Open", LocalDateTime.now().minusHours(1)));
+        log.appendTicket(new CustomerCareTicket("TICKET-002", "Account Problem", "Can't reset password", "In Progress", LocalDateTime.now().minusDays(1)));
     }
 
     public VBox getMessageCenterView() {
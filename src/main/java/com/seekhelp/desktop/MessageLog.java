@@ -0,0 +1,441 @@
+package com.seekhelp.desktop;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Local, append-only store for Message Center messages and support tickets. Records go to numbered
+// segment files (a new one every SEGMENT_BYTES); nothing is rewritten, so a ticket update is a newer
+// record for the same id. Each record carries a CRC, and a torn record at the end of the last segment
+// (e.g. after a crash) is cut off when the log is opened; a damaged record elsewhere is skipped.
+//
+// Opening scans the segments once and builds in-memory indexes of message positions, senders,
+// priorities, timestamps and content words; message bodies stay on disk and are read a page at a time.
+// Settings: -Dseekhelp.messages.dir (default ~/.seekhelp/messages)
+public class MessageLog {
+
+    private static final long SEGMENT_BYTES = 4L << 20;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final byte KIND_MESSAGE = 1;
+    private static final byte KIND_TICKET = 2;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final Path directory;
+    private final List<FileChannel> segments = new ArrayList<>();
+    private FileChannel active;
+    private int activeNumber;
+
+    // Message index, by ordinal (append order); times never decrease, so time ranges are binary searches
+    private long[] positions = new long[256]; // segment index << 40 | offset
+    private long[] times = new long[256];
+    private int messageCount = 0;
+    private final Map<String, IntList> bySender = new HashMap<>();
+    private final Map<String, IntList> byPriority = new HashMap<>();
+    private final TreeMap<String, IntList> byWord = new TreeMap<>();
+
+    // Latest version of each ticket
+    private final Map<String, MessageCenterController.CustomerCareTicket> tickets = new LinkedHashMap<>();
+
+    private MessageLog(Path directory) {
+        this.directory = directory;
+    }
+
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("seekhelp.messages.dir",
+            Path.of(System.getProperty("user.home"), ".seekhelp", "messages").toString()));
+    }
+
+    // Reads every segment in the directory; blocking, so call it off the FX thread
+    public static MessageLog open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().matches("segment-\\d+\\.log"))
+                .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                .toList();
+        }
+
+        MessageLog log = new MessageLog(directory);
+        for (int i = 0; i < files.size(); i++) {
+            boolean last = i == files.size() - 1;
+            FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            log.segments.add(channel);
+            long validBytes = log.scan(files.get(i), i);
+            if (validBytes < channel.size()) {
+                if (last) {
+                    System.err.println("Message log: discarding a torn record at the end of " + files.get(i));
+                    channel.truncate(validBytes);
+                } else {
+                    System.err.println("Message log: skipped " + (channel.size() - validBytes)
+                        + " bytes of damaged records at the end of " + files.get(i));
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            log.rollSegment(1);
+        } else {
+            log.active = log.segments.get(log.segments.size() - 1);
+            String name = files.get(files.size() - 1).getFileName().toString();
+            log.activeNumber = Integer.parseInt(name.substring("segment-".length(), name.length() - ".log".length()));
+        }
+        return log;
+    }
+
+    public synchronized boolean isEmpty() {
+        return messageCount == 0 && tickets.isEmpty();
+    }
+
+    public synchronized int getMessageCount() {
+        return messageCount;
+    }
+
+    public synchronized void appendMessage(MessageCenterController.Message message) throws IOException {
+        long time = Math.max(toMillis(message.getTime()), messageCount == 0 ? Long.MIN_VALUE : times[messageCount - 1]);
+        ByteBuffer body = encode(KIND_MESSAGE, time,
+            message.getFrom(), message.getTo(), message.getPriority(), message.getContent());
+        indexMessage(write(body), time, message.getFrom(), message.getPriority(), message.getContent());
+    }
+
+    public synchronized void appendTicket(MessageCenterController.CustomerCareTicket ticket) throws IOException {
+        write(encode(KIND_TICKET, toMillis(ticket.getCreatedTime()),
+            ticket.getId(), ticket.getType(), ticket.getSubject(), ticket.getStatus()));
+        tickets.put(ticket.getId(), ticket);
+    }
+
+    public synchronized List<String> getSenders() {
+        List<String> senders = new ArrayList<>(bySender.keySet());
+        Collections.sort(senders);
+        return senders;
+    }
+
+    // Newest first
+    public synchronized List<MessageCenterController.CustomerCareTicket> getTickets() {
+        List<MessageCenterController.CustomerCareTicket> list = new ArrayList<>(tickets.values());
+        list.sort(Comparator.comparing(MessageCenterController.CustomerCareTicket::getCreatedTime).reversed());
+        return list;
+    }
+
+    // Up to limit messages matching the query, newest first, older than the cursor (use
+    // Integer.MAX_VALUE for the first page); the returned page carries the cursor for the next one
+    public synchronized MessagePage find(Query query, int cursor, int limit) {
+        int low = query.since == null ? 0 : firstAtOrAfter(toMillis(query.since));
+        int high = query.until == null ? messageCount : firstAtOrAfter(toMillis(query.until) + 1);
+        high = Math.min(high, cursor);
+
+        List<IntList> lists = new ArrayList<>();
+        if (query.sender != null) {
+            lists.add(postings(bySender.get(query.sender)));
+        }
+        if (query.priority != null) {
+            lists.add(postings(byPriority.get(query.priority)));
+        }
+        List<String> words = TextTokens.tokenize(query.text);
+        for (int i = 0; i < words.size(); i++) {
+            // The last word may still be being typed, so it matches as a prefix
+            lists.add(i == words.size() - 1 ? prefixPostings(words.get(i)) : postings(byWord.get(words.get(i))));
+        }
+
+        List<MessageCenterController.Message> messages = new ArrayList<>();
+        int last = -1;
+        if (lists.isEmpty()) {
+            for (int ordinal = high - 1; ordinal >= low && messages.size() < limit; ordinal--) {
+                messages.add(read(ordinal));
+                last = ordinal;
+            }
+        } else {
+            // Walk the shortest list and probe the others
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            IntList driver = lists.get(0);
+            int start = Arrays.binarySearch(driver.values, 0, driver.size, high);
+            start = (start < 0 ? -start - 1 : start) - 1;
+            for (int i = start; i >= 0 && driver.values[i] >= low && messages.size() < limit; i--) {
+                int ordinal = driver.values[i];
+                if (inAll(lists, ordinal)) {
+                    messages.add(read(ordinal));
+                    last = ordinal;
+                }
+            }
+        }
+        return new MessagePage(messages, messages.size() == limit && last > low ? last : -1);
+    }
+
+    public synchronized void close() {
+        for (FileChannel channel : segments) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close message log: " + e.getMessage());
+            }
+        }
+        segments.clear();
+    }
+
+    // Indexes the valid records of one segment and returns where the last one ends. A damaged record
+    // is skipped by searching forward, byte by byte, for the next valid one, so the records after it
+    // still load; the bytes passed over are reported.
+    private long scan(Path file, int segment) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        int offset = 0;
+        int end = 0;
+        long skipped = 0;
+        while (offset <= data.limit() - 8) {
+            int length = recordLength(data, offset);
+            if (length < 0) {
+                offset++;
+                continue;
+            }
+            skipped += offset - end;
+            load(data.slice(offset + 8, length), (long) segment << 40 | offset);
+            offset += 8 + length;
+            end = offset;
+        }
+        if (skipped > 0) {
+            System.err.println("Message log: skipped " + skipped + " bytes of damaged records in " + file);
+        }
+        return end;
+    }
+
+    // The body length of the record at offset, or -1 if no intact record starts there
+    private static int recordLength(ByteBuffer data, int offset) {
+        int length = data.getInt(offset);
+        if (length <= 0 || length > MAX_RECORD_BYTES || length > data.limit() - offset - 8) {
+            return -1;
+        }
+        byte kind = data.get(offset + 8);
+        if (kind != KIND_MESSAGE && kind != KIND_TICKET) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data.slice(offset + 8, length));
+        return (int) crc.getValue() == data.getInt(offset + 4) ? length : -1;
+    }
+
+    private void load(ByteBuffer body, long position) {
+        byte kind = body.get();
+        long time = body.getLong();
+        if (kind == KIND_MESSAGE) {
+            String from = getString(body);
+            getString(body);
+            String priority = getString(body);
+            String content = getString(body);
+            indexMessage(position, time, from, priority, content);
+        } else if (kind == KIND_TICKET) {
+            String id = getString(body);
+            tickets.put(id, new MessageCenterController.CustomerCareTicket(
+                id, getString(body), getString(body), getString(body), toTime(time)));
+        }
+    }
+
+    private void indexMessage(long position, long time, String from, String priority, String content) {
+        if (messageCount == positions.length) {
+            positions = Arrays.copyOf(positions, messageCount * 2);
+            times = Arrays.copyOf(times, messageCount * 2);
+        }
+        int ordinal = messageCount++;
+        positions[ordinal] = position;
+        times[ordinal] = time;
+        bySender.computeIfAbsent(from, key -> new IntList()).add(ordinal);
+        byPriority.computeIfAbsent(priority, key -> new IntList()).add(ordinal);
+        for (String word : TextTokens.tokenize(content)) {
+            IntList list = byWord.computeIfAbsent(word, key -> new IntList());
+            if (list.size == 0 || list.values[list.size - 1] != ordinal) {
+                list.add(ordinal);
+            }
+        }
+    }
+
+    private MessageCenterController.Message read(int ordinal) {
+        long position = positions[ordinal];
+        FileChannel channel = segments.get((int) (position >>> 40));
+        long offset = position & ((1L << 40) - 1);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            readFully(channel, header, offset);
+            ByteBuffer body = ByteBuffer.allocate(header.getInt(0));
+            readFully(channel, body, offset + 8);
+            body.flip();
+            body.get();
+            long time = body.getLong();
+            String from = getString(body);
+            String to = getString(body);
+            String priority = getString(body);
+            return new MessageCenterController.Message(from, to, getString(body), priority, toTime(time));
+        } catch (IOException e) {
+            System.err.println("Failed to read message: " + e.getMessage());
+            return new MessageCenterController.Message("?", "?", "(This message could not be read)", "Normal",
+                toTime(times[ordinal]));
+        }
+    }
+
+    private long write(ByteBuffer body) throws IOException {
+        if (active.size() >= SEGMENT_BYTES) {
+            rollSegment(activeNumber + 1);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        ByteBuffer record = ByteBuffer.allocate(8 + body.remaining());
+        record.putInt(body.remaining()).putInt((int) crc.getValue()).put(body).flip();
+
+        long offset = active.size();
+        while (record.hasRemaining()) {
+            active.write(record, offset + record.position());
+        }
+        return (long) (segments.size() - 1) << 40 | offset;
+    }
+
+    private void rollSegment(int number) throws IOException {
+        Path file = directory.resolve(String.format("segment-%06d.log", number));
+        active = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeNumber = number;
+        segments.add(active);
+    }
+
+    private int firstAtOrAfter(long time) {
+        int low = 0;
+        int high = messageCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static IntList postings(IntList list) {
+        return list == null ? new IntList() : list;
+    }
+
+    private IntList prefixPostings(String prefix) {
+        IntList exact = byWord.get(prefix);
+        Map<String, IntList> matching = byWord.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (matching.size() == 1 && exact != null) {
+            return exact;
+        }
+        BitSet union = new BitSet(messageCount);
+        for (IntList list : matching.values()) {
+            for (int i = 0; i < list.size; i++) {
+                union.set(list.values[i]);
+            }
+        }
+        IntList merged = new IntList();
+        union.stream().forEach(merged::add);
+        return merged;
+    }
+
+    private static boolean inAll(List<IntList> lists, int ordinal) {
+        for (int i = 1; i < lists.size(); i++) {
+            IntList list = lists.get(i);
+            if (Arrays.binarySearch(list.values, 0, list.size, ordinal) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ByteBuffer encode(byte kind, long time, String... fields) {
+        byte[][] encoded = new byte[fields.length][];
+        int size = 1 + 8;
+        for (int i = 0; i < fields.length; i++) {
+            encoded[i] = (fields[i] == null ? "" : fields[i]).getBytes(StandardCharsets.UTF_8);
+            size += 4 + encoded[i].length;
+        }
+        ByteBuffer body = ByteBuffer.allocate(size);
+        body.put(kind).putLong(time);
+        for (byte[] field : encoded) {
+            body.putInt(field.length).put(field);
+        }
+        return body.flip();
+    }
+
+    private static String getString(ByteBuffer body) {
+        byte[] bytes = new byte[body.getInt()];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Message record is truncated");
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+    }
+
+    // Filters for find(); null fields match everything
+    public static class Query {
+        private final String sender;
+        private final String priority;
+        private final LocalDateTime since;
+        private final LocalDateTime until;
+        private final String text;
+
+        public Query(String sender, String priority, LocalDateTime since, LocalDateTime until, String text) {
+            this.sender = sender;
+            this.priority = priority;
+            this.since = since;
+            this.until = until;
+            this.text = text;
+        }
+
+        public boolean isEmpty() {
+            return sender == null && priority == null && since == null && until == null && TextTokens.tokenize(text).isEmpty();
+        }
+    }
+
+    public static class MessagePage {
+        private final List<MessageCenterController.Message> messages;
+        private final int nextCursor;
+
+        MessagePage(List<MessageCenterController.Message> messages, int nextCursor) {
+            this.messages = messages;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<MessageCenterController.Message> getMessages() { return messages; }
+        public int getNextCursor() { return nextCursor; }
+        public boolean hasMore() { return nextCursor >= 0; }
+    }
+
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.seekhelp.desktop;
+
+import javafx.application.Platform;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class PageRegistry {
+
+    private final Map<String, Page<?>> pages = new LinkedHashMap<>();
+    private final Map<String, Long> constructionTimes = new LinkedHashMap<>();
+    private final Deque<Page<?>> prewarmQueue = new ArrayDeque<>();
+    private boolean prewarmScheduled = false;
+
+    public <T> Page<T> register(String name, Supplier<T> factory) {
+        Page<T> page = new Page<>(name, factory);
+        pages.put(name, page);
+        return page;
+    }
+
+    // Builds the given pages one per FX pulse so navigation stays responsive while warming
+    public void prewarm(List<String> names) {
+        for (String name : names) {
+            Page<?> page = pages.get(name);
+            if (page != null && !page.isBuilt() && !prewarmQueue.contains(page)) {
+                prewarmQueue.add(page);
+            }
+        }
+        schedulePrewarm();
+    }
+
+    private void schedulePrewarm() {
+        if (prewarmScheduled || prewarmQueue.isEmpty()) {
+            return;
+        }
+        prewarmScheduled = true;
+        Platform.runLater(() -> {
+            prewarmScheduled = false;
+            Page<?> page = prewarmQueue.poll();
+            if (page != null) {
+                page.get();
+            }
+            schedulePrewarm();
+        });
+    }
+
+    public boolean isBuilt(String name) {
+        Page<?> page = pages.get(name);
+        return page != null && page.isBuilt();
+    }
+
+    public Map<String, Long> getConstructionTimes() {
+        return Collections.unmodifiableMap(constructionTimes);
+    }
+
+    public class Page<T> {
+        private final String name;
+        private final Supplier<T> factory;
+        private T instance;
+
+        private Page(String name, Supplier<T> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        public T get() {
+            if (instance == null) {
+                long start = System.nanoTime();
+                instance = factory.get();
+                long elapsedMicros = (System.nanoTime() - start) / 1_000;
+                constructionTimes.put(name, elapsedMicros);
+            }
+            return instance;
+        }
+
+        public boolean isBuilt() {
+            return instance != null;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
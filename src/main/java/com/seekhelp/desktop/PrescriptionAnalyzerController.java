@@ -9,8 +9,12 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
+import javafx.application.Platform;
+import javafx.stage.FileChooser;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
 
 public class PrescriptionAnalyzerController {
 
@@ -21,10 +25,29 @@ public class PrescriptionAnalyzerController {
     private ProgressIndicator loadingIndicator;
     private Label statusLabel;
     private Button analyzeButton;
+    private Label uploadText;
+    private DrugInteractions drugInteractions;
+    private ProductCatalog catalog;
+    private Path selectedImage;
+    private final PrescriptionPipeline pipeline = new PrescriptionPipeline(PrescriptionPipeline.defaultRecognizer());
 
     public PrescriptionAnalyzerController(MainController mainController) {
         this.mainController = mainController;
         initializePrescriptionAnalyzerView();
+        mainController.getDrugInteractions().whenComplete((loaded, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Failed to load drug interactions: " + error.getMessage());
+                return;
+            }
+            drugInteractions = loaded;
+        }));
+        mainController.getProductCatalog().whenComplete((opened, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Failed to open the product catalog: " + error.getMessage());
+                return;
+            }
+            catalog = opened;
+        }));
     }
 
     private void initializePrescriptionAnalyzerView() {
@@ -125,7 +148,7 @@ public class PrescriptionAnalyzerController {
         Label uploadIcon = new Label("📄");
         uploadIcon.setStyle("-fx-font-size: 64px;");
 
-        Label uploadText = new Label("Click to upload prescription image");
+        uploadText = new Label("Click to upload prescription image");
         uploadText.setFont(Font.font("System", 18));
         uploadText.setTextFill(Color.valueOf("#6b7280"));
 
@@ -133,7 +156,7 @@ public class PrescriptionAnalyzerController {
         uploadButton.getStyleClass().add("upload-button");
         uploadButton.setOnAction(e -> uploadPrescription());
 
-        Label supportedFormats = new Label("Supported formats: JPG, PNG, PDF");
+        Label supportedFormats = new Label("Supported formats: JPG, PNG, BMP, GIF");
         supportedFormats.setFont(Font.font("System", 12));
         supportedFormats.setTextFill(Color.valueOf("#9ca3af"));
 
@@ -287,71 +310,107 @@ public class PrescriptionAnalyzerController {
     }
 
     private void uploadPrescription() {
-        mainController.showNotification("Upload", "Prescription upload feature will be implemented with image processing and OCR.");
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Choose Prescription Image");
+        chooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("Images", "*.jpg", "*.jpeg", "*.png", "*.bmp", "*.gif"));
+        File file = chooser.showOpenDialog(scrollPane.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        selectedImage = file.toPath();
+        uploadText.setText("📄 " + file.getName());
+        clearAnalysis();
+        statusLabel.setText("Ready to analyze " + file.getName());
     }
 
+    // Runs the image pipeline off the FX thread; stages report into statusLabel, leaving the page cancels it
     private void analyzePrescription() {
+        if (selectedImage == null) {
+            mainController.showNotification("No Prescription", "Please upload a prescription image first.");
+            return;
+        }
+        if (catalog == null) {
+            mainController.showNotification("Please Wait", "The medicine catalog is still loading. Please try again in a moment.");
+            return;
+        }
+
         // Show loading
         analyzeButton.setDisable(true);
         loadingIndicator.setVisible(true);
-        statusLabel.setText("Analyzing prescription with AI...");
         analysisResultContainer.setVisible(false);
 
-        // Simulate AI analysis
-        CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(3000); // Simulate processing time
-                
-                // Generate analysis result
-                String analysisResult = generateAnalysisResult();
-                
-                // Update UI on JavaFX thread
-                javafx.application.Platform.runLater(() -> {
-                    displayAnalysisResult(analysisResult);
-                    analyzeButton.setDisable(false);
-                    loadingIndicator.setVisible(false);
-                    statusLabel.setText("Analysis complete");
-                });
-            } catch (Exception e) {
-                javafx.application.Platform.runLater(() -> {
-                    mainController.showNotification("Error", "Failed to analyze prescription. Please try again.");
-                    analyzeButton.setDisable(false);
-                    loadingIndicator.setVisible(false);
-                    statusLabel.setText("Analysis failed");
-                });
+        Path image = selectedImage;
+        ProductCatalog medicines = catalog;
+        mainController.getTaskScheduler().submit("PrescriptionAnalyzer", "prescription-analysis",
+            () -> pipeline.run(image, medicines, stage -> Platform.runLater(() -> statusLabel.setText(stage)))
+        ).whenComplete((result, error) -> Platform.runLater(() -> {
+            analyzeButton.setDisable(false);
+            loadingIndicator.setVisible(false);
+            if (error instanceof CancellationException) {
+                statusLabel.setText("Analysis cancelled");
+            } else if (error != null) {
+                System.err.println("Prescription analysis failed: " + error.getMessage());
+                mainController.showNotification("Error", "Failed to analyze prescription. Please try again.");
+                statusLabel.setText("Analysis failed");
+            } else {
+                displayAnalysisResult(generateAnalysisResult(result));
+                statusLabel.setText("Analysis complete in " + result.getTotalMillis() + " ms (" + describeStages(result) + ")");
             }
-        });
+        }));
     }
 
-    private String generateAnalysisResult() {
+    // e.g. "decode 180 ms, grayscale 12 ms, ..."
+    private static String describeStages(PrescriptionPipeline.Result result) {
+        StringJoiner stages = new StringJoiner(", ");
+        result.getStageMillis().forEach((stage, millis) -> stages.add(stage + " " + millis + " ms"));
+        return stages.toString();
+    }
+
+    private String generateAnalysisResult(PrescriptionPipeline.Result analysis) {
         StringBuilder result = new StringBuilder();
         result.append("🤖 **AI Prescription Analysis Report**\n\n");
-        
+
         result.append("**📋 Prescription Details:**\n");
-        result.append("• Doctor: Dr. Sharma\n");
-        result.append("• Date: 15 January 2024\n");
-        result.append("• Patient: [Patient Name]\n\n");
-        
+        result.append("• File: ").append(analysis.getImage().getFileName()).append("\n");
+        result.append("• Analyzed at: ").append(analysis.getWidth()).append(" × ").append(analysis.getHeight()).append(" px\n");
+        if (analysis.getSkewDegrees() != 0) {
+            result.append("• Page straightened by ").append(analysis.getSkewDegrees()).append("°\n");
+        }
+        result.append("\n");
+
+        List<MedicineMatcher.Match> matches = analysis.getMedicines();
         result.append("**💊 Medicines Identified:**\n");
-        result.append("1. **Paracetamol 500mg**\n");
-        result.append("   - Dosage: 1 tablet every 6 hours\n");
-        result.append("   - Duration: 3 days\n");
-        result.append("   - Purpose: Fever and pain relief\n\n");
-        
-        result.append("2. **Omeprazole 20mg**\n");
-        result.append("   - Dosage: 1 capsule daily\n");
-        result.append("   - Duration: 7 days\n");
-        result.append("   - Purpose: Acid reflux treatment\n\n");
-        
+        if (matches.isEmpty()) {
+            result.append(analysis.getText().isBlank()
+                ? "• No text could be read from the image. Try a sharper, well-lit photo.\n\n"
+                : "• No medicines from our catalog were recognized.\n\n");
+        }
+        int number = 1;
+        for (MedicineMatcher.Match match : matches) {
+            MedicalShopController.Medicine medicine = match.getMedicine();
+            result.append(number++).append(". **").append(medicine.getName()).append("**\n");
+            result.append("   - As written: ").append(match.getLine()).append("\n");
+            result.append("   - Purpose: ").append(medicine.getDescription()).append("\n");
+            result.append("   - Type: ").append(medicine.getType()).append(" • Price: ₹").append(medicine.getPrice()).append("\n\n");
+        }
+
+        List<String> names = new ArrayList<>();
+        for (MedicineMatcher.Match match : matches) {
+            names.add(match.getMedicine().getName());
+        }
+        appendInteractions(result, names);
+
         result.append("**⚠️ Important Information:**\n");
-        result.append("• Take Paracetamol with food to avoid stomach upset\n");
-        result.append("• Omeprazole should be taken 30 minutes before meals\n");
-        result.append("• Avoid alcohol while taking these medications\n");
+        result.append("• Follow the dosage written by your doctor; it is not interpreted by this analysis\n");
+        result.append("• Avoid alcohol unless your doctor says otherwise\n");
         result.append("• Contact doctor if symptoms persist beyond prescribed duration\n\n");
-        
-        result.append("**🔍 AI Confidence Score: 95%**\n");
-        result.append("The AI has high confidence in the prescription analysis.\n\n");
-        
+
+        result.append("**🔍 Recognition:**\n");
+        int lines = (int) analysis.getText().lines().filter(line -> !line.isBlank()).count();
+        result.append("Matched ").append(matches.size()).append(matches.size() == 1 ? " medicine" : " medicines")
+            .append(" in ").append(lines).append(lines == 1 ? " line" : " lines").append(" of recognized text.\n\n");
+
         result.append("**📞 Next Steps:**\n");
         result.append("• Verify the analysis with your pharmacist\n");
         result.append("• Follow the prescribed dosage strictly\n");
@@ -364,6 +423,32 @@ public class PrescriptionAnalyzerController {
         return result.toString();
     }
 
+    // Checks the identified medicines against each other
+    private void appendInteractions(StringBuilder result, List<String> medicines) {
+        result.append("**🧪 Drug Interactions:**\n");
+        if (medicines.size() < 2) {
+            result.append("• Fewer than two medicines identified; nothing to check\n\n");
+            return;
+        }
+        if (drugInteractions == null) {
+            result.append("• Interaction check unavailable; ask your pharmacist to review these medicines together\n\n");
+            return;
+        }
+        int[] drugs = medicines.stream()
+            .flatMapToInt(medicine -> Arrays.stream(drugInteractions.resolve(medicine)))
+            .distinct()
+            .toArray();
+        List<DrugInteractions.Interaction> found = drugInteractions.check(drugs);
+        if (found.isEmpty()) {
+            result.append("• No known interactions between the identified medicines\n\n");
+            return;
+        }
+        for (DrugInteractions.Interaction interaction : found) {
+            result.append("• ").append(interaction.describe()).append("\n");
+        }
+        result.append("\n");
+    }
+
     private void displayAnalysisResult(String result) {
         analysisResultContainer.getChildren().clear();
         analysisResultContainer.setVisible(true);
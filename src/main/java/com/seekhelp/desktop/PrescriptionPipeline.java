@@ -0,0 +1,360 @@
+package com.seekhelp.desktop;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Local prescription analysis, run off the FX thread in stages:
+//   decode     the image is decoded at reduced resolution (every n-th pixel) so no side exceeds MAX_SIDE
+//   grayscale  luma of each pixel
+//   binarize   ink/paper split at the Otsu threshold of the luma histogram
+//   deskew     the angle whose row projection of the ink is sharpest (text lines straight) is found
+//              coarse then fine, and the page is rotated back by it
+//   text       a TextRecognizer reads the cleaned page
+//   match      recognized lines are matched against the medicine catalog
+// Pixel buffers are kept between runs and only grow, so repeated analyses do not allocate per pixel.
+// One run at a time; a run checks for cancellation (thread interrupt) between stages.
+public class PrescriptionPipeline {
+
+    private static final int MAX_SIDE = 2000;
+    private static final double MAX_SKEW_DEGREES = 10;
+    private static final byte INK = 0;
+    private static final byte PAPER = (byte) 255;
+
+    private final TextRecognizer recognizer;
+
+    // Reused between runs
+    private int[] argb = new int[0];
+    private byte[] gray = new byte[0];
+    private byte[] binary = new byte[0];
+    private byte[] rotated = new byte[0];
+    private int[] profile = new int[0];
+    private final int[] histogram = new int[256];
+
+    public PrescriptionPipeline(TextRecognizer recognizer) {
+        this.recognizer = recognizer;
+    }
+
+    // Tesseract when -Dseekhelp.ocr.command is set or "tesseract" is on the PATH, else the transcript stub
+    public static TextRecognizer defaultRecognizer() {
+        String command = System.getProperty("seekhelp.ocr.command");
+        if (command == null && onPath("tesseract")) {
+            command = "tesseract";
+        }
+        return command == null ? new TranscriptTextRecognizer() : new TesseractTextRecognizer(command);
+    }
+
+    // Blocking; progress receives the name of each stage as it starts
+    public synchronized Result run(Path image, ProductCatalog catalog, Consumer<String> progress) throws IOException, InterruptedException {
+        Result result = new Result(image);
+
+        progress.accept("Decoding image...");
+        long start = System.nanoTime();
+        decode(image, result);
+        start = finishStage(result, "decode", start);
+
+        progress.accept("Converting to grayscale...");
+        int pixels = result.width * result.height;
+        gray = ensure(gray, pixels);
+        for (int i = 0; i < pixels; i++) {
+            int color = argb[i];
+            gray[i] = (byte) ((77 * ((color >> 16) & 0xFF) + 150 * ((color >> 8) & 0xFF) + 29 * (color & 0xFF)) >> 8);
+        }
+        start = finishStage(result, "grayscale", start);
+
+        progress.accept("Binarizing...");
+        binary = ensure(binary, pixels);
+        int threshold = otsuThreshold(pixels);
+        for (int i = 0; i < pixels; i++) {
+            binary[i] = (gray[i] & 0xFF) <= threshold ? INK : PAPER;
+        }
+        start = finishStage(result, "binarize", start);
+
+        progress.accept("Straightening page...");
+        result.skewDegrees = estimateSkew(binary, result.width, result.height);
+        if (Math.abs(result.skewDegrees) >= 0.2) {
+            rotated = ensure(rotated, pixels);
+            rotate(binary, rotated, result.width, result.height, Math.toRadians(result.skewDegrees));
+            byte[] swap = binary;
+            binary = rotated;
+            rotated = swap;
+        }
+        start = finishStage(result, "deskew", start);
+
+        progress.accept("Reading text...");
+        result.text = recognizer.recognize(new Page(binary, result.width, result.height, image));
+        start = finishStage(result, "text", start);
+
+        progress.accept("Matching medicines...");
+        result.medicines = new MedicineMatcher(catalog).match(result.text);
+        finishStage(result, "match", start);
+        return result;
+    }
+
+    private void decode(Path file, Result result) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + file.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int step = (int) Math.ceil(Math.max(reader.getWidth(0), reader.getHeight(0)) / (double) MAX_SIDE);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(Math.max(1, step), Math.max(1, step), 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+                result.width = decoded.getWidth();
+                result.height = decoded.getHeight();
+                argb = ensure(argb, result.width * result.height);
+                decoded.getRGB(0, 0, result.width, result.height, argb, 0, result.width);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private int otsuThreshold(int pixels) {
+        Arrays.fill(histogram, 0);
+        long sum = 0;
+        for (int i = 0; i < pixels; i++) {
+            int value = gray[i] & 0xFF;
+            histogram[value]++;
+            sum += value;
+        }
+        long backgroundSum = 0;
+        int backgroundCount = 0;
+        double bestVariance = -1;
+        int best = 127;
+        for (int t = 0; t < 256; t++) {
+            backgroundCount += histogram[t];
+            if (backgroundCount == 0) {
+                continue;
+            }
+            int foregroundCount = pixels - backgroundCount;
+            if (foregroundCount == 0) {
+                break;
+            }
+            backgroundSum += (long) t * histogram[t];
+            double meanDifference = (double) backgroundSum / backgroundCount - (double) (sum - backgroundSum) / foregroundCount;
+            double variance = (double) backgroundCount * foregroundCount * meanDifference * meanDifference;
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                best = t;
+            }
+        }
+        return best;
+    }
+
+    // Degrees the text lines rise to the right; 0 when the page has no clear lines
+    double estimateSkew(byte[] page, int width, int height) {
+        double best = bestAngle(page, width, height, -MAX_SKEW_DEGREES, MAX_SKEW_DEGREES, 1.0);
+        return bestAngle(page, width, height, best - 1.0, best + 1.0, 0.1);
+    }
+
+    // Projects the ink onto lines y + x * tan(angle) = c; straight text gives the most uneven counts
+    private double bestAngle(byte[] page, int width, int height, double from, double to, double step) {
+        int margin = (int) Math.ceil(width * Math.tan(Math.toRadians(MAX_SKEW_DEGREES + 1))) + 1;
+        profile = ensure(profile, height + 2 * margin);
+        double bestAngle = 0;
+        long bestScore = -1;
+        for (double angle = from; angle <= to + 1e-9; angle += step) {
+            Arrays.fill(profile, 0, height + 2 * margin, 0);
+            double slope = Math.tan(Math.toRadians(angle));
+            for (int y = 0; y < height; y++) {
+                int row = y * width;
+                for (int x = 0; x < width; x += 2) {
+                    if (page[row + x] == INK) {
+                        profile[margin + y + (int) Math.round(x * slope)]++;
+                    }
+                }
+            }
+            long score = 0;
+            for (int i = 0; i < height + 2 * margin; i++) {
+                score += (long) profile[i] * profile[i];
+            }
+            if (score > bestScore || (score == bestScore && Math.abs(angle) < Math.abs(bestAngle))) {
+                bestScore = score;
+                bestAngle = angle;
+            }
+        }
+        return Math.round(bestAngle * 10) / 10.0;
+    }
+
+    // Rotates the page clockwise by radians about its centre (nearest pixel); uncovered corners become paper
+    private static void rotate(byte[] source, byte[] target, int width, int height, double radians) {
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double cx = width / 2.0;
+        double cy = height / 2.0;
+        for (int y = 0; y < height; y++) {
+            double dy = y - cy;
+            for (int x = 0; x < width; x++) {
+                double dx = x - cx;
+                int sx = (int) Math.round(cx + dx * cos + dy * sin);
+                int sy = (int) Math.round(cy - dx * sin + dy * cos);
+                target[y * width + x] = sx >= 0 && sx < width && sy >= 0 && sy < height ? source[sy * width + sx] : PAPER;
+            }
+        }
+    }
+
+    private static long finishStage(Result result, String stage, long start) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Prescription analysis cancelled");
+        }
+        long now = System.nanoTime();
+        result.stageMillis.put(stage, TimeUnit.NANOSECONDS.toMillis(now - start));
+        return now;
+    }
+
+    private static int[] ensure(int[] buffer, int size) {
+        return buffer.length >= size ? buffer : new int[size];
+    }
+
+    private static byte[] ensure(byte[] buffer, int size) {
+        return buffer.length >= size ? buffer : new byte[size];
+    }
+
+    private static boolean onPath(String command) {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return false;
+        }
+        for (String directory : path.split(File.pathSeparator)) {
+            if (Files.isExecutable(Path.of(directory, command)) || Files.isExecutable(Path.of(directory, command + ".exe"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Text extraction stage; implementations may block and should stop when the thread is interrupted
+    public interface TextRecognizer {
+        String recognize(Page page) throws IOException, InterruptedException;
+    }
+
+    // The cleaned page: one byte per pixel, 0 ink and 255 paper. Only valid during recognize().
+    public static class Page {
+        private final byte[] pixels;
+        private final int width;
+        private final int height;
+        private final Path source;
+
+        Page(byte[] pixels, int width, int height, Path source) {
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+            this.source = source;
+        }
+
+        public byte[] getPixels() { return pixels; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+        public Path getSource() { return source; }
+
+        // Binary PGM, which OCR engines read directly
+        void writePgm(OutputStream out) throws IOException {
+            out.write(("P5\n" + width + " " + height + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(pixels, 0, width * height);
+        }
+    }
+
+    // Runs the Tesseract command line on the cleaned page
+    public static class TesseractTextRecognizer implements TextRecognizer {
+        private static final long TIMEOUT_SECONDS = 60;
+        private final String command;
+
+        public TesseractTextRecognizer(String command) {
+            this.command = command;
+        }
+
+        // Output goes to a file rather than a pipe, so a stuck engine cannot block us past the timeout;
+        // on timeout or interrupt the process is killed
+        @Override
+        public String recognize(Page page) throws IOException, InterruptedException {
+            Path image = Files.createTempFile("seekhelp-prescription", ".pgm");
+            Path text = Files.createTempFile("seekhelp-prescription", ".txt");
+            Process process = null;
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(image))) {
+                    page.writePgm(out);
+                }
+                process = new ProcessBuilder(command, image.toString(), "stdout")
+                    .redirectOutput(text.toFile())
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+                if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IOException("Text recognition timed out after " + TIMEOUT_SECONDS + " s (" + command + ")");
+                }
+                if (process.exitValue() != 0) {
+                    throw new IOException("Text recognition failed (" + command + ")");
+                }
+                return Files.readString(text, StandardCharsets.UTF_8);
+            } finally {
+                if (process != null && process.isAlive()) {
+                    // Children too, in case the command is a wrapper script
+                    process.descendants().forEach(ProcessHandle::destroyForcibly);
+                    process.destroyForcibly();
+                }
+                Files.deleteIfExists(image);
+                Files.deleteIfExists(text);
+            }
+        }
+    }
+
+    // Stand-in when no OCR engine is installed: reads a transcript saved next to the image
+    // (prescription.jpg -> prescription.txt), or returns no text
+    public static class TranscriptTextRecognizer implements TextRecognizer {
+        @Override
+        public String recognize(Page page) throws IOException {
+            String name = page.getSource().getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            Path transcript = page.getSource().resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".txt");
+            return Files.exists(transcript) ? Files.readString(transcript, StandardCharsets.UTF_8) : "";
+        }
+    }
+
+    public static class Result {
+        private final Path image;
+        private int width;
+        private int height;
+        private double skewDegrees;
+        private String text = "";
+        private List<MedicineMatcher.Match> medicines = new ArrayList<>();
+        private final Map<String, Long> stageMillis = new LinkedHashMap<>();
+
+        Result(Path image) {
+            this.image = image;
+        }
+
+        public Path getImage() { return image; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+        public double getSkewDegrees() { return skewDegrees; }
+        public String getText() { return text; }
+        public List<MedicineMatcher.Match> getMedicines() { return medicines; }
+        public Map<String, Long> getStageMillis() { return stageMillis; }
+
+        public long getTotalMillis() {
+            return stageMillis.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.seekhelp.desktop;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Read-only medical shop catalog kept in a compact binary file that is memory-mapped, so opening it
+// reads only what the indexes need and the OS pages the rest in as cards are shown. Layout:
+//   header   magic, version, product count, string count
+//   products fixed RECORD_BYTES records sorted by id: id, name, description and type as string
+//            table indexes, price in paise, stock
+//   strings  an offset table, then the UTF-8 bytes of each distinct string
+// Each distinct string is stored once, so the few types and shared descriptions cost one entry.
+//
+// Opening builds a sorted word index over product names: every query word matches names with a word
+// starting with it, or, when nothing does, names with a word within a small edit distance (typos).
+// Settings: -Dseekhelp.catalog.file (default ~/.seekhelp/catalog.bin)
+public class ProductCatalog {
+
+    private static final int MAGIC = 0x53484354; // "SHCT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 28;
+
+    public enum Sort { NAME, PRICE_LOW_TO_HIGH, PRICE_HIGH_TO_LOW }
+
+    private final ByteBuffer data;
+    private final int count;
+    private final int stringCount;
+    private final int stringTable;
+    private final String[] names;
+    private final long[] prices;
+    private final int[] typeRefs;
+    private final Map<String, Integer> types = new LinkedHashMap<>();
+    private final int[] byName;
+
+    // Word index: words sorted, with the products of words[i] at wordProducts[wordStarts[i]..wordStarts[i + 1])
+    private final String[] words;
+    private final int[] wordStarts;
+    private final int[] wordProducts;
+
+    private ProductCatalog(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.limit() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("Not a product catalog file");
+        }
+        count = data.getInt(8);
+        stringCount = data.getInt(12);
+        stringTable = HEADER_BYTES + count * RECORD_BYTES;
+        if (count < 0 || stringCount < 0 || (long) stringTable + 4L * (stringCount + 1) > data.limit()) {
+            throw new IOException("Truncated product catalog file");
+        }
+
+        names = new String[count];
+        prices = new long[count];
+        typeRefs = new int[count];
+        String[] pool = new String[stringCount];
+        for (int i = 0; i < count; i++) {
+            int record = HEADER_BYTES + i * RECORD_BYTES;
+            int nameRef = data.getInt(record + 4);
+            if (pool[nameRef] == null) {
+                pool[nameRef] = string(nameRef);
+            }
+            names[i] = pool[nameRef];
+            typeRefs[i] = data.getInt(record + 12);
+            if (pool[typeRefs[i]] == null) {
+                pool[typeRefs[i]] = string(typeRefs[i]);
+            }
+            types.putIfAbsent(pool[typeRefs[i]], typeRefs[i]);
+            prices[i] = data.getLong(record + 16);
+        }
+
+        String[] sortKeys = new String[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            sortKeys[i] = names[i].toLowerCase(Locale.ROOT);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> sortKeys[i]));
+        byName = new int[count];
+        for (int i = 0; i < count; i++) {
+            byName[i] = order[i];
+        }
+
+        // Counts products per word, then fills each word's range in product order
+        String[][] nameWords = new String[count][];
+        Map<String, int[]> counters = new HashMap<>();
+        int pairs = 0;
+        for (int i = 0; i < count; i++) {
+            List<String> tokens = TextTokens.tokenize(sortKeys[i]);
+            nameWords[i] = tokens.stream().distinct().toArray(String[]::new);
+            for (String word : nameWords[i]) {
+                counters.computeIfAbsent(word, w -> new int[1])[0]++;
+            }
+            pairs += nameWords[i].length;
+        }
+        words = counters.keySet().toArray(new String[0]);
+        Arrays.sort(words);
+        wordStarts = new int[words.length + 1];
+        for (int w = 0; w < words.length; w++) {
+            int[] counter = counters.get(words[w]);
+            wordStarts[w + 1] = wordStarts[w] + counter[0];
+            counter[0] = wordStarts[w]; // now the next free position in the word's range
+        }
+        wordProducts = new int[pairs];
+        for (int i = 0; i < count; i++) {
+            for (String word : nameWords[i]) {
+                wordProducts[counters.get(word)[0]++] = i;
+            }
+        }
+    }
+
+    public static Path defaultFile() {
+        return Path.of(System.getProperty("seekhelp.catalog.file",
+            Path.of(System.getProperty("user.home"), ".seekhelp", "catalog.bin").toString()));
+    }
+
+    // The catalog at defaultFile(), created from the built-in products on first run; blocking
+    public static ProductCatalog openDefault() throws IOException {
+        Path file = defaultFile();
+        if (!Files.exists(file)) {
+            write(file, sampleProducts());
+        }
+        return open(file);
+    }
+
+    // Maps the file and builds the name index; blocking, so call it off the FX thread
+    public static ProductCatalog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Product catalog file is too large");
+            }
+            // The mapping stays valid after the channel is closed
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ProductCatalog(mapped.order(ByteOrder.BIG_ENDIAN));
+        }
+    }
+
+    // Writes products in the catalog format, replacing the file in one step
+    public static void write(Path file, List<MedicalShopController.Medicine> products) throws IOException {
+        List<MedicalShopController.Medicine> sorted = new ArrayList<>(products);
+        sorted.sort(Comparator.comparingInt(MedicalShopController.Medicine::getId));
+
+        Map<String, Integer> pool = new LinkedHashMap<>();
+        ByteBuffer records = ByteBuffer.allocate(sorted.size() * RECORD_BYTES);
+        for (MedicalShopController.Medicine product : sorted) {
+            records.putInt(product.getId());
+            records.putInt(pool.computeIfAbsent(product.getName(), s -> pool.size()));
+            records.putInt(pool.computeIfAbsent(product.getDescription(), s -> pool.size()));
+            records.putInt(pool.computeIfAbsent(product.getType(), s -> pool.size()));
+            records.putLong(product.getPrice().movePointRight(2).longValueExact());
+            records.putInt(product.getStock());
+        }
+
+        byte[][] encoded = new byte[pool.size()][];
+        int bytes = 0;
+        int index = 0;
+        for (String value : pool.keySet()) {
+            encoded[index] = value.getBytes(StandardCharsets.UTF_8);
+            bytes += encoded[index++].length;
+        }
+        ByteBuffer strings = ByteBuffer.allocate(4 * (encoded.length + 1) + bytes);
+        int offset = 0;
+        for (byte[] value : encoded) {
+            strings.putInt(offset);
+            offset += value.length;
+        }
+        strings.putInt(offset);
+        for (byte[] value : encoded) {
+            strings.put(value);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(sorted.size()).putInt(encoded.length);
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "catalog", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer[] parts = { header.flip(), records.flip(), strings.flip() };
+            while (parts[2].hasRemaining()) {
+                channel.write(parts);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static List<MedicalShopController.Medicine> sampleProducts() {
+        return List.of(
+            new MedicalShopController.Medicine(1, "Paracetamol 500mg", "Fever & pain relief", new BigDecimal("15.00"), "OTC", 100),
+            new MedicalShopController.Medicine(2, "Ibuprofen 400mg", "Inflammation & pain", new BigDecimal("25.00"), "OTC", 50),
+            new MedicalShopController.Medicine(3, "Cetirizine 10mg", "Allergy relief", new BigDecimal("30.00"), "OTC", 75),
+            new MedicalShopController.Medicine(4, "Omeprazole 20mg", "Acid reflux", new BigDecimal("45.00"), "Prescription", 25),
+            new MedicalShopController.Medicine(5, "Metformin 500mg", "Diabetes", new BigDecimal("35.00"), "Prescription", 30),
+            new MedicalShopController.Medicine(6, "Amoxicillin 500mg", "Antibiotic", new BigDecimal("80.00"), "Prescription", 20),
+            new MedicalShopController.Medicine(7, "Vitamin D3", "Bone health", new BigDecimal("120.00"), "OTC", 60),
+            new MedicalShopController.Medicine(8, "Iron Supplements", "Anemia", new BigDecimal("95.00"), "OTC", 40),
+            new MedicalShopController.Medicine(9, "First Aid Kit", "Emergency supplies", new BigDecimal("250.00"), "OTC", 15),
+            new MedicalShopController.Medicine(10, "Digital Thermometer", "Temperature monitoring", new BigDecimal("180.00"), "OTC", 25),
+            new MedicalShopController.Medicine(11, "Blood Pressure Monitor", "BP monitoring", new BigDecimal("1200.00"), "OTC", 10),
+            new MedicalShopController.Medicine(12, "Glucose Monitor", "Diabetes monitoring", new BigDecimal("800.00"), "OTC", 8)
+        );
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public List<String> getTypes() {
+        return new ArrayList<>(types.keySet());
+    }
+
+    // Decodes one product; index is a position in this catalog, as returned by search()
+    public MedicalShopController.Medicine get(int index) {
+        int record = HEADER_BYTES + index * RECORD_BYTES;
+        return new MedicalShopController.Medicine(
+            getId(index),
+            names[index],
+            string(data.getInt(record + 8)),
+            BigDecimal.valueOf(prices[index], 2),
+            string(typeRefs[index]),
+            getStock(index));
+    }
+
+    // Single fields read straight from the record, without decoding the product's strings
+    public int getId(int index) {
+        return data.getInt(HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+    public int getStock(int index) {
+        return data.getInt(HEADER_BYTES + index * RECORD_BYTES + 24);
+    }
+
+    // Records are sorted by id, so this is a binary search over the mapped file; null when unknown
+    public MedicalShopController.Medicine findById(int id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = getId(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return get(mid);
+            }
+        }
+        return null;
+    }
+
+    // Catalog positions of the matching products in the requested order. text may be empty, type null
+    // for any type, and either price bound null for no bound.
+    public int[] search(String text, String type, BigDecimal minPrice, BigDecimal maxPrice, Sort sort) {
+        BitSet matches = null;
+        for (String word : TextTokens.tokenize(text)) {
+            BitSet wordMatches = matchWord(word);
+            if (matches == null) {
+                matches = wordMatches;
+            } else {
+                matches.and(wordMatches);
+            }
+        }
+
+        int typeRef = type == null ? -1 : types.getOrDefault(type, -2);
+        if (typeRef == -2) {
+            return new int[0];
+        }
+        long min = minPrice == null ? Long.MIN_VALUE : minPrice.movePointRight(2).setScale(0, RoundingMode.CEILING).longValue();
+        long max = maxPrice == null ? Long.MAX_VALUE : maxPrice.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+
+        int[] result = new int[matches == null ? count : matches.cardinality()];
+        int size = 0;
+        for (int index : byName) {
+            if ((matches == null || matches.get(index))
+                    && (typeRef < 0 || typeRefs[index] == typeRef)
+                    && prices[index] >= min && prices[index] <= max) {
+                result[size++] = index;
+            }
+        }
+        result = Arrays.copyOf(result, size);
+
+        if (sort != Sort.NAME) {
+            // Stable by name: price in the high bits, name rank in the low bits
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (prices[result[i]] << 24) | i;
+            }
+            Arrays.sort(keys);
+            int[] byPrice = new int[size];
+            for (int i = 0; i < size; i++) {
+                int rank = (int) (keys[sort == Sort.PRICE_LOW_TO_HIGH ? i : size - 1 - i] & 0xFFFFFF);
+                byPrice[i] = result[rank];
+            }
+            result = byPrice;
+        }
+        return result;
+    }
+
+    // Products with a name word starting with word; failing that, with a name word a typo away from it
+    private BitSet matchWord(String word) {
+        BitSet matches = new BitSet(count);
+        int from = lowerBound(word);
+        for (int i = from; i < words.length && words[i].startsWith(word); i++) {
+            setProducts(matches, i);
+        }
+        if (!matches.isEmpty()) {
+            return matches;
+        }
+        int maxEdits = word.length() <= 4 ? 1 : 2;
+        for (int i = 0; i < words.length; i++) {
+            if (prefixDistance(word, words[i], maxEdits) <= maxEdits) {
+                setProducts(matches, i);
+            }
+        }
+        return matches;
+    }
+
+    private void setProducts(BitSet matches, int wordIndex) {
+        for (int p = wordStarts[wordIndex]; p < wordStarts[wordIndex + 1]; p++) {
+            matches.set(wordProducts[p]);
+        }
+    }
+
+    private int lowerBound(String word) {
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (words[mid].compareTo(word) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Fewest edits turning query into some prefix of candidate, capped at maxEdits + 1. Only the
+    // diagonal band of width maxEdits is computed, and it stops as soon as every cell exceeds the cap.
+    static int prefixDistance(String query, String candidate, int maxEdits) {
+        int n = query.length();
+        int m = Math.min(candidate.length(), n + maxEdits);
+        int cap = maxEdits + 1;
+        if (m < n - maxEdits) {
+            return cap;
+        }
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = Math.min(j, cap);
+        }
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - maxEdits);
+            int to = Math.min(m, i + maxEdits);
+            current[0] = Math.min(i, cap);
+            if (from > 1) {
+                current[from - 1] = cap;
+            }
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int substitute = previous[j - 1] + (query.charAt(i - 1) == candidate.charAt(j - 1) ? 0 : 1);
+                int delete = previous[j] + 1;
+                int insert = current[j - 1] + 1;
+                current[j] = Math.min(cap, Math.min(substitute, Math.min(delete, insert)));
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = cap;
+            }
+            if (rowMin >= cap) {
+                return cap;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        // Any prefix of the candidate may be the match, so take the best cell of the last row
+        int best = cap;
+        for (int j = Math.max(0, n - maxEdits); j <= Math.min(m, n + maxEdits); j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private String string(int ref) {
+        int start = data.getInt(stringTable + 4 * ref);
+        int end = data.getInt(stringTable + 4 * (ref + 1));
+        byte[] bytes = new byte[end - start];
+        data.get(stringTable + 4 * (stringCount + 1) + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
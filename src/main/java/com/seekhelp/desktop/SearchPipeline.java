@@ -0,0 +1,92 @@
+package com.seekhelp.desktop;
+
+import javafx.application.Platform;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+// Debounced search that runs off the FX thread and publishes only the latest result.
+// When a query narrows the last completed one, the search is handed the previous result to refine.
+// Searches run on the app's task scheduler without a page, so one that is in flight when the user
+// navigates away still publishes and the page shows results for its current query on return.
+public class SearchPipeline<Q, R> {
+
+    private final AppTaskScheduler scheduler;
+    private final String name;
+    private final Duration debounce;
+    private final BiFunction<Q, R, R> search;
+    private final BiPredicate<Q, Q> narrows;
+    private final Consumer<R> publisher;
+
+    private final Object lock = new Object();
+    private long generation;
+    private CompletableFuture<Void> pending;
+    private Q lastQuery;
+    private R lastResult;
+
+    public SearchPipeline(AppTaskScheduler scheduler, String name, Duration debounce, BiFunction<Q, R, R> search,
+                          BiPredicate<Q, Q> narrows, Consumer<R> publisher) {
+        this.scheduler = scheduler;
+        this.name = name;
+        this.debounce = debounce;
+        this.search = search;
+        this.narrows = narrows;
+        this.publisher = publisher;
+    }
+
+    // For typing: waits for input to settle before searching
+    public void submit(Q query) {
+        schedule(query, debounce);
+    }
+
+    // For explicit actions such as a combo box change or the search button
+    public void submitNow(Q query) {
+        schedule(query, Duration.ZERO);
+    }
+
+    private void schedule(Q query, Duration delay) {
+        synchronized (lock) {
+            long ticket = ++generation;
+            if (pending != null) {
+                pending.cancel(true);
+            }
+            pending = scheduler.submit(null, name, delay, () -> {
+                run(query, ticket);
+                return null;
+            });
+        }
+    }
+
+    private void run(Q query, long ticket) {
+        R previous;
+        synchronized (lock) {
+            if (ticket != generation) {
+                return;
+            }
+            previous = lastQuery != null && narrows.test(query, lastQuery) ? lastResult : null;
+        }
+
+        R result = search.apply(query, previous);
+
+        synchronized (lock) {
+            if (ticket != generation) {
+                return;
+            }
+            lastQuery = query;
+            lastResult = result;
+        }
+
+        Platform.runLater(() -> {
+            // A newer query may have been submitted while this result was queued
+            synchronized (lock) {
+                if (ticket != generation) {
+                    return;
+                }
+            }
+            publisher.accept(result);
+        });
+    }
+}
@@ -8,14 +8,25 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.stage.Stage;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.ConfigurableApplicationContext;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 
-@SpringBootApplication
-@ComponentScan(basePackages = "com.seekhelp.desktop")
+import java.util.Set;
+
+@SpringBootApplication(scanBasePackages = "com.seekhelp.desktop")
 public class SeekHelpDesktopApplication extends Application {
 
-    private ConfigurableApplicationContext springContext;
+    // -Dseekhelp.boot=eager restores the old behaviour of starting the full context before the UI
+    private static final boolean STAGED_BOOT = !"eager".equalsIgnoreCase(System.getProperty("seekhelp.boot", "staged"));
+
+    private final StartupTimeline timeline = new StartupTimeline();
+    private ConfigurableApplicationContext uiContext;
+    private volatile ConfigurableApplicationContext springContext;
     private MainController mainController;
 
     public static void main(String[] args) {
@@ -24,47 +35,108 @@ public class SeekHelpDesktopApplication extends Application {
 
     @Override
     public void init() throws Exception {
-        // Start Spring Boot backend
-        springContext = SpringApplication.run(SeekHelpDesktopApplication.class);
+        if (!STAGED_BOOT) {
+            // Start Spring Boot backend
+            StartupTimeline.Phase phase = timeline.start("Spring context (eager)");
+            springContext = SpringApplication.run(SeekHelpDesktopApplication.class);
+            phase.end();
+            springContext.getBean(BackendServices.class).register(springContext);
+        }
     }
 
     @Override
     public void start(Stage primaryStage) {
         try {
-            // Create main controller
-            mainController = springContext.getBean(MainController.class);
-            
+            StartupTimeline.Phase uiPhase = timeline.start("UI context + login screen");
+            BackendServices backendServices;
+            if (STAGED_BOOT) {
+                // Minimal context with only the beans the UI needs to show the login screen
+                uiContext = new AnnotationConfigApplicationContext(AuthService.class, AppTaskScheduler.class,
+                    MainController.class, BackendServices.class);
+                mainController = uiContext.getBean(MainController.class);
+                backendServices = uiContext.getBean(BackendServices.class);
+            } else {
+                // Create main controller
+                mainController = springContext.getBean(MainController.class);
+                backendServices = springContext.getBean(BackendServices.class);
+            }
+            uiPhase.end();
+
+            StartupTimeline.Phase stagePhase = timeline.start("Stage shown");
+
             // Set up the main stage
             primaryStage.setTitle("Seek Help+ - Medical Assistance Platform");
             primaryStage.setMinWidth(1200);
             primaryStage.setMinHeight(800);
-            
+
             // Create and set the main scene
             Scene scene = new Scene(mainController.getRoot());
-            
+
             // Load CSS styles using the robust CSS loader
             CSSLoader.loadDefaultStyles(scene);
-            
+
             primaryStage.setScene(scene);
             primaryStage.show();
-            
+            stagePhase.end();
+
             // Handle window close
             primaryStage.setOnCloseRequest(event -> {
                 Platform.exit();
                 System.exit(0);
             });
-            
+
+            if (STAGED_BOOT) {
+                startBackend(backendServices);
+            } else {
+                System.out.println(timeline.report());
+            }
+
         } catch (Exception e) {
             e.printStackTrace();
             showError("Application Error", "Failed to start the application", e.getMessage());
         }
     }
 
+    private void startBackend(BackendServices backendServices) {
+        Thread backendThread = new Thread(() -> {
+            StartupTimeline.Phase phase = timeline.start("Backend context (web, JPA, H2)");
+            BufferingApplicationStartup startup = new BufferingApplicationStartup(4096);
+            try {
+                SpringApplication application = new SpringApplicationBuilder(SeekHelpDesktopApplication.class)
+                    .parent(uiContext)
+                    .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("uiBeanExcludeFilter", new UiBeanExcludeFilter()))
+                    .build();
+                application.setApplicationStartup(startup);
+                springContext = application.run();
+                phase.end();
+                timeline.addBackendSteps(startup);
+                backendServices.register(springContext);
+                System.out.println(timeline.report());
+            } catch (Exception e) {
+                phase.end();
+                System.err.println("Backend services failed to start: " + e.getMessage());
+                e.printStackTrace();
+                backendServices.fail(e);
+            }
+        }, "seekhelp-backend-startup");
+        backendThread.setDaemon(true);
+        backendThread.start();
+    }
+
     @Override
     public void stop() {
+        if (mainController != null) {
+            mainController.shutdown();
+        }
+        MapTileServer.shutdown();
+        AIWorkerPool.shutdown();
         if (springContext != null) {
             springContext.close();
         }
+        if (uiContext != null) {
+            uiContext.close();
+        }
     }
 
     private void showError(String title, String header, String content) {
@@ -74,4 +146,30 @@ public class SeekHelpDesktopApplication extends Application {
         alert.setContentText(content);
         alert.showAndWait();
     }
+
+    // Keeps the backend context from creating a second copy of the beans owned by the UI context
+    private static class UiBeanExcludeFilter extends TypeExcludeFilter {
+
+        private static final Set<String> UI_BEANS = Set.of(
+            MainController.class.getName(),
+            AuthService.class.getName(),
+            AppTaskScheduler.class.getName(),
+            BackendServices.class.getName()
+        );
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return UI_BEANS.contains(metadataReader.getClassMetadata().getClassName());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && getClass() == obj.getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
 }
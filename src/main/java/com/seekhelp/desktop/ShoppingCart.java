@@ -0,0 +1,164 @@
+package com.seekhelp.desktop;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.math.BigDecimal;
+
+// Medical shop cart keyed by product id. Quantities live in an open-addressing int table (linear
+// probing), with each slot also holding its table row, so adding an item is one probe however long
+// the cart is. The total is kept up to date with exact decimal arithmetic as quantities change, and
+// each row exposes its own quantity and line total so only the changed row's cells redraw.
+// Used from the FX thread only.
+public class ShoppingCart {
+
+    private static final int EMPTY = 0; // product ids start at 1
+
+    private int[] productIds = new int[16];
+    private int[] quantities = new int[16];
+    private CartLine[] rows = new CartLine[16];
+    private int size = 0;
+
+    private final ObservableList<CartLine> lines = FXCollections.observableArrayList();
+    private BigDecimal total = BigDecimal.ZERO;
+
+    // Changes the product's quantity by delta and returns the new quantity; a line dropping to zero is removed
+    public int add(MedicalShopController.Medicine product, int delta) {
+        int id = product.getId();
+        int slot = find(id);
+        int current = productIds[slot] == id ? quantities[slot] : 0;
+        int next = Math.max(0, current + delta);
+        if (next == current) {
+            return current;
+        }
+        total = total.add(product.getPrice().multiply(BigDecimal.valueOf(next - current)));
+
+        if (current == 0) {
+            CartLine line = new CartLine(product);
+            insert(slot, id, next, line);
+            line.setQuantity(next);
+            lines.add(line);
+        } else if (next == 0) {
+            lines.remove(rows[slot]);
+            delete(slot);
+        } else {
+            quantities[slot] = next;
+            rows[slot].setQuantity(next);
+        }
+        return next;
+    }
+
+    public int getQuantity(int productId) {
+        int slot = find(productId);
+        return productIds[slot] == productId ? quantities[slot] : 0;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public ObservableList<CartLine> getLines() {
+        return lines;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        productIds = new int[16];
+        quantities = new int[16];
+        rows = new CartLine[16];
+        size = 0;
+        total = BigDecimal.ZERO;
+        lines.clear();
+    }
+
+    // Slot holding the id, or the empty slot where it would go
+    private int find(int id) {
+        int mask = productIds.length - 1;
+        int slot = mix(id) & mask;
+        while (productIds[slot] != EMPTY && productIds[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, int id, int quantity, CartLine line) {
+        productIds[slot] = id;
+        quantities[slot] = quantity;
+        rows[slot] = line;
+        size++;
+        if (size * 4 > productIds.length * 3) {
+            rehash(productIds.length * 2);
+        }
+    }
+
+    // Backward-shift deletion keeps every probe chain unbroken without tombstones
+    private void delete(int slot) {
+        int mask = productIds.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (productIds[next] != EMPTY) {
+            int home = mix(productIds[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                productIds[hole] = productIds[next];
+                quantities[hole] = quantities[next];
+                rows[hole] = rows[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        productIds[hole] = EMPTY;
+        quantities[hole] = 0;
+        rows[hole] = null;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldIds = productIds;
+        int[] oldQuantities = quantities;
+        CartLine[] oldRows = rows;
+        productIds = new int[capacity];
+        quantities = new int[capacity];
+        rows = new CartLine[capacity];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != EMPTY) {
+                int slot = find(oldIds[i]);
+                productIds[slot] = oldIds[i];
+                quantities[slot] = oldQuantities[i];
+                rows[slot] = oldRows[i];
+            }
+        }
+    }
+
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // One table row; its cells bind to these properties
+    public static class CartLine {
+        private final MedicalShopController.Medicine product;
+        private final ReadOnlyIntegerWrapper quantity = new ReadOnlyIntegerWrapper();
+        private final ReadOnlyObjectWrapper<BigDecimal> lineTotal = new ReadOnlyObjectWrapper<>(BigDecimal.ZERO);
+
+        CartLine(MedicalShopController.Medicine product) {
+            this.product = product;
+        }
+
+        private void setQuantity(int value) {
+            quantity.set(value);
+            lineTotal.set(product.getPrice().multiply(BigDecimal.valueOf(value)));
+        }
+
+        public MedicalShopController.Medicine getProduct() { return product; }
+        public int getQuantity() { return quantity.get(); }
+        public ReadOnlyIntegerProperty quantityProperty() { return quantity.getReadOnlyProperty(); }
+        public ReadOnlyObjectProperty<BigDecimal> lineTotalProperty() { return lineTotal.getReadOnlyProperty(); }
+    }
+}
@@ -0,0 +1,92 @@
+package com.seekhelp.desktop;
+
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.core.metrics.StartupStep;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class StartupTimeline {
+
+    // Spring startup steps worth calling out in the report, keyed by step name and bean name tag
+    private static final String[][] BACKEND_STEPS = {
+        {"spring.boot.webserver.create", null, "Embedded web server"},
+        {"spring.beans.instantiate", "dataSource", "H2 datasource"},
+        {"spring.beans.instantiate", "entityManagerFactory", "JPA / Hibernate"},
+        {"spring.beans.instantiate", "springSecurityFilterChain", "Security filter chain"}
+    };
+
+    private final long origin = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final List<Phase> phases = new ArrayList<>();
+
+    public Phase start(String name) {
+        Phase phase = new Phase(name, System.currentTimeMillis());
+        synchronized (phases) {
+            phases.add(phase);
+        }
+        return phase;
+    }
+
+    public void addBackendSteps(BufferingApplicationStartup startup) {
+        for (TimelineEvent event : startup.getBufferedTimeline().getEvents()) {
+            String label = backendLabel(event.getStartupStep());
+            if (label != null) {
+                Phase phase = new Phase("  " + label, event.getStartTime().toEpochMilli());
+                phase.endMillis = event.getEndTime().toEpochMilli();
+                synchronized (phases) {
+                    phases.add(phase);
+                }
+            }
+        }
+    }
+
+    private String backendLabel(StartupStep step) {
+        for (String[] candidate : BACKEND_STEPS) {
+            if (!candidate[0].equals(step.getName())) {
+                continue;
+            }
+            if (candidate[1] == null) {
+                return candidate[2];
+            }
+            for (StartupStep.Tag tag : step.getTags()) {
+                if ("beanName".equals(tag.getKey()) && candidate[1].equals(tag.getValue())) {
+                    return candidate[2];
+                }
+            }
+        }
+        return null;
+    }
+
+    public String report() {
+        List<Phase> snapshot;
+        synchronized (phases) {
+            snapshot = new ArrayList<>(phases);
+        }
+        snapshot.sort(Comparator.comparingLong(p -> p.startMillis));
+
+        StringBuilder report = new StringBuilder("Startup timeline (ms since JVM start):\n");
+        for (Phase phase : snapshot) {
+            report.append(String.format("  %-32s +%6d  %s%n", phase.name, phase.startMillis - origin,
+                phase.endMillis < 0 ? "running" : (phase.endMillis - phase.startMillis) + " ms"));
+        }
+        return report.toString();
+    }
+
+    public static class Phase {
+        private final String name;
+        private final long startMillis;
+        private volatile long endMillis = -1;
+
+        private Phase(String name, long startMillis) {
+            this.name = name;
+            this.startMillis = startMillis;
+        }
+
+        public void end() {
+            endMillis = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.seekhelp.desktop;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Open support tickets in service order. Each ticket type has a priority and an SLA; a ticket's
+// deadline is its creation time plus that SLA, so the queue is earliest-deadline-first, which weighs
+// type and age together, with the type priority breaking ties. Deadlines are tracked on a timing wheel
+// advanced once a second by tick(), which reports when the number of breached tickets changes.
+// Used from the FX thread only.
+public class SupportTicketQueue {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final Set<String> CLOSED_STATUSES = Set.of("Resolved", "Closed");
+    private static final Sla DEFAULT_SLA = new Sla(3, Duration.ofHours(48));
+    private static final Map<String, Sla> SLAS = Map.of(
+        "Technical Issue", new Sla(1, Duration.ofHours(4)),
+        "Account Problem", new Sla(1, Duration.ofHours(4)),
+        "Bug Report", new Sla(2, Duration.ofHours(8)),
+        "Billing Question", new Sla(2, Duration.ofHours(24)),
+        "General Inquiry", new Sla(3, Duration.ofHours(48)),
+        "Feature Request", new Sla(3, Duration.ofHours(72))
+    );
+
+    private final TreeSet<Entry> queue = new TreeSet<>(Comparator
+        .comparingLong((Entry entry) -> entry.deadlineMillis)
+        .thenComparingInt(entry -> entry.rank)
+        .thenComparingLong(entry -> entry.sequence));
+    private final Map<String, Entry> open = new HashMap<>();
+    private final TimingWheel<Entry> slaTimers;
+    private long nextSequence = 0;
+    private int breachedCount = 0;
+
+    public SupportTicketQueue(long nowMillis) {
+        this.slaTimers = new TimingWheel<>(1000, nowMillis);
+    }
+
+    // Adds a ticket or replaces the queued version of it; closed tickets leave the queue
+    public void update(MessageCenterController.CustomerCareTicket ticket) {
+        Entry previous = open.remove(ticket.getId());
+        if (previous != null) {
+            queue.remove(previous);
+            slaTimers.cancel(previous.timer);
+            if (previous.breached) {
+                breachedCount--;
+            }
+        }
+        if (CLOSED_STATUSES.contains(ticket.getStatus())) {
+            return;
+        }
+
+        Sla sla = SLAS.getOrDefault(ticket.getType(), DEFAULT_SLA);
+        long deadline = ticket.getCreatedTime().plus(sla.target).atZone(ZONE).toInstant().toEpochMilli();
+        Entry entry = new Entry(ticket, deadline, sla.rank, nextSequence++);
+        entry.timer = slaTimers.schedule(entry, deadline);
+        open.put(ticket.getId(), entry);
+        queue.add(entry);
+    }
+
+    // Fires the SLA timers that are due; true when the breached count changed
+    public boolean tick(long nowMillis) {
+        int before = breachedCount;
+        slaTimers.advanceTo(nowMillis, entry -> {
+            entry.breached = true;
+            breachedCount++;
+        });
+        return breachedCount != before;
+    }
+
+    // The first limit tickets in service order
+    public List<MessageCenterController.CustomerCareTicket> peek(int limit) {
+        List<MessageCenterController.CustomerCareTicket> tickets = new ArrayList<>(Math.min(limit, queue.size()));
+        for (Entry entry : queue) {
+            if (tickets.size() == limit) {
+                break;
+            }
+            tickets.add(entry.ticket);
+        }
+        return tickets;
+    }
+
+    public boolean isBreached(String ticketId) {
+        Entry entry = open.get(ticketId);
+        return entry != null && entry.breached;
+    }
+
+    public LocalDateTime getDeadline(String ticketId) {
+        Entry entry = open.get(ticketId);
+        return entry == null ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.deadlineMillis), ZONE);
+    }
+
+    public int getOpenCount() {
+        return open.size();
+    }
+
+    public int getBreachedCount() {
+        return breachedCount;
+    }
+
+    private static class Sla {
+        private final int rank;
+        private final Duration target;
+
+        Sla(int rank, Duration target) {
+            this.rank = rank;
+            this.target = target;
+        }
+    }
+
+    private static class Entry {
+        private final MessageCenterController.CustomerCareTicket ticket;
+        private final long deadlineMillis;
+        private final int rank;
+        private final long sequence;
+        private TimingWheel.Timer<Entry> timer;
+        private boolean breached = false;
+
+        Entry(MessageCenterController.CustomerCareTicket ticket, long deadlineMillis, int rank, long sequence) {
+            this.ticket = ticket;
+            this.deadlineMillis = deadlineMillis;
+            this.rank = rank;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -11,9 +11,7 @@ import javafx.scene.web.WebView;
 import javafx.scene.web.WebEngine;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
-import javafx.application.Platform;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 
 public class SymptomCheckerController {
 
@@ -36,6 +34,8 @@ public class SymptomCheckerController {
     private TextArea aiResponseArea;
     private ScrollPane aiResponseScrollPane;
 
+    private final SymptomEngine symptomEngine = new SymptomEngine();
+
     public SymptomCheckerController(MainController mainController) {
         this.mainController = mainController;
         this.symptomCheckboxes = new HashMap<>();
@@ -86,11 +86,11 @@ public class SymptomCheckerController {
         VBox header = new VBox();
         header.setSpacing(15);
 
-        Label title = new Label("🛡️ AI Symptom Checker");
+        Label title = new Label("🛡️ Symptom Checker");
         title.setFont(Font.font("System", FontWeight.BOLD, 32));
         title.setTextFill(Color.valueOf("#1f2937"));
 
-        Label subtitle = new Label("Get AI-powered symptom analysis and medical guidance using ChatGPT-5");
+        Label subtitle = new Label("Get symptom analysis and medical guidance from a built-in rule-based checker");
         subtitle.setFont(Font.font("System", 18));
         subtitle.setTextFill(Color.valueOf("#6b7280"));
 
@@ -105,7 +105,8 @@ public class SymptomCheckerController {
         reassuranceTitle.setTextFill(Color.valueOf("#1e40af"));
 
         Label reassuranceText = new Label(
-            "This AI symptom checker is powered by ChatGPT-5 and designed to provide guidance and information. " +
+            "This symptom checker runs on your computer, matching your symptoms against a small built-in " +
+            "medical knowledge base, and is designed to provide guidance and information. " +
             "It's not a substitute for professional medical advice. If you're experiencing " +
             "severe symptoms, please contact a healthcare provider immediately."
         );
@@ -219,11 +220,11 @@ public class SymptomCheckerController {
         section.setPadding(new Insets(20));
         section.getStyleClass().add("ai-chat-section");
 
-        Label sectionTitle = new Label("🤖 AI Medical Assistant (ChatGPT-5)");
+        Label sectionTitle = new Label("🩺 Symptom Analysis");
         sectionTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
         sectionTitle.setTextFill(Color.valueOf("#1f2937"));
 
-        Label sectionDesc = new Label("Get AI-powered analysis using ChatGPT-5 technology (Medical questions only):");
+        Label sectionDesc = new Label("Analysis by the built-in symptom checker (runs offline; medical symptoms only):");
         sectionDesc.setFont(Font.font("System", 14));
         sectionDesc.setTextFill(Color.valueOf("#6b7280"));
 
@@ -266,7 +267,7 @@ public class SymptomCheckerController {
         HBox buttonContainer = new HBox(15);
         buttonContainer.setAlignment(Pos.CENTER);
 
-        askAIButton = new Button("🤖 Ask ChatGPT-5 for Analysis");
+        askAIButton = new Button("🩺 Analyze Symptoms");
         askAIButton.getStyleClass().add("primary-button");
         askAIButton.setOnAction(e -> analyzeSymptoms());
 
@@ -415,113 +416,86 @@ public class SymptomCheckerController {
             return;
         }
 
-        // Show loading
-        askAIButton.setDisable(true);
-        loadingIndicator.setVisible(true);
-        statusLabel.setText("Analyzing symptoms with ChatGPT-5...");
-        aiResponseContainer.setVisible(false);
-        aiResponseScrollPane.setVisible(false);
+        // The engine answers in microseconds, so there is nothing to wait for off the FX thread
+        long startNanos = System.nanoTime();
+        SymptomEngine.Analysis analysis = symptomEngine.analyze(collectSymptoms(selectedSymptoms, writtenSymptoms));
+        long elapsedMicros = (System.nanoTime() - startNanos) / 1000;
+
+        displayAIResponse(generateAnalysisReport(analysis, selectedSymptoms, writtenSymptoms, elapsedMicros));
+        loadingIndicator.setVisible(false);
+        statusLabel.setText("Analysis complete in " + elapsedMicros + " µs");
+    }
 
-        // Simulate ChatGPT-5 analysis (in real implementation, this would call ChatGPT API)
-        CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(3000); // Simulate API call delay
-                
-                // Create AI response
-                String aiResponse = generateChatGPTResponse(selectedSymptoms, writtenSymptoms);
-                
-                // Update UI on JavaFX thread
-                Platform.runLater(() -> {
-                    displayAIResponse(aiResponse);
-                    askAIButton.setDisable(false);
-                    loadingIndicator.setVisible(false);
-                    statusLabel.setText("ChatGPT-5 analysis complete");
-                });
-            } catch (Exception e) {
-                Platform.runLater(() -> {
-                    mainController.showNotification("Error", "Failed to analyze symptoms. Please try again.");
-                    askAIButton.setDisable(false);
-                    loadingIndicator.setVisible(false);
-                    statusLabel.setText("Analysis failed");
-                });
+    // Checkbox labels plus each comma, semicolon or line separated phrase of the written description
+    private List<String> collectSymptoms(List<String> selectedSymptoms, String writtenSymptoms) {
+        List<String> symptoms = new ArrayList<>(selectedSymptoms);
+        for (String phrase : writtenSymptoms.split("[,;\\n]")) {
+            String trimmed = phrase.trim();
+            if (!trimmed.isEmpty()) {
+                symptoms.add(trimmed);
             }
-        });
+        }
+        return symptoms;
     }
 
-    private String generateChatGPTResponse(List<String> selectedSymptoms, String writtenSymptoms) {
+    private String generateAnalysisReport(SymptomEngine.Analysis analysis, List<String> selectedSymptoms,
+                                          String writtenSymptoms, long elapsedMicros) {
         StringBuilder response = new StringBuilder();
-        response.append("🤖 **ChatGPT-5 Medical Analysis Report**\n\n");
-        
-        // Combine symptoms
-        List<String> allSymptoms = new ArrayList<>(selectedSymptoms);
-        if (!writtenSymptoms.isEmpty()) {
-            allSymptoms.add("Additional symptoms: " + writtenSymptoms);
-        }
+        response.append("🩺 **Medical Analysis Report**\n\n");
         
         response.append("**📋 Symptoms Identified:**\n");
-        for (String symptom : allSymptoms) {
+        for (String symptom : selectedSymptoms) {
             response.append("• ").append(symptom).append("\n");
         }
+        if (!writtenSymptoms.isEmpty()) {
+            response.append("• Additional symptoms: ").append(writtenSymptoms).append("\n");
+        }
         
-        response.append("\n**🧠 ChatGPT-5 Analysis:**\n");
-        
-        // Generate analysis based on symptoms using ChatGPT-5 logic
-        if (allSymptoms.stream().anyMatch(s -> s.toLowerCase().contains("fever") || s.toLowerCase().contains("cough"))) {
-            response.append("Based on your symptoms, ChatGPT-5 analysis suggests you may be experiencing a viral infection or common cold. ");
-            response.append("This is typically self-limiting and resolves within 7-10 days.\n\n");
-            response.append("**🔍 ChatGPT-5 Recommendations:**\n");
-            response.append("• Rest and stay hydrated\n");
-            response.append("• Take paracetamol for fever\n");
-            response.append("• Monitor your temperature\n");
-            response.append("• Seek medical attention if symptoms worsen\n\n");
-            response.append("**📊 ChatGPT-5 Confidence Level: 85%**\n");
-            response.append("The AI has moderate confidence in this analysis based on common symptom patterns.\n\n");
-        } else if (allSymptoms.stream().anyMatch(s -> s.toLowerCase().contains("headache") || s.toLowerCase().contains("migraine"))) {
-            response.append("ChatGPT-5 analysis indicates your symptoms suggest a tension headache or migraine. ");
-            response.append("These are common and usually not serious.\n\n");
-            response.append("**🔍 ChatGPT-5 Recommendations:**\n");
-            response.append("• Rest in a quiet, dark room\n");
-            response.append("• Stay hydrated\n");
-            response.append("• Consider over-the-counter pain relievers\n");
-            response.append("• Practice stress management techniques\n\n");
-            response.append("**📊 ChatGPT-5 Confidence Level: 90%**\n");
-            response.append("The AI has high confidence in this analysis.\n\n");
-        } else if (allSymptoms.stream().anyMatch(s -> s.toLowerCase().contains("anxiety") || s.toLowerCase().contains("stress"))) {
-            response.append("ChatGPT-5 analysis shows your symptoms indicate stress or anxiety, which is very common. ");
-            response.append("This is a normal response to life's challenges.\n\n");
-            response.append("**🔍 ChatGPT-5 Recommendations:**\n");
-            response.append("• Practice deep breathing exercises\n");
-            response.append("• Engage in regular physical activity\n");
-            response.append("• Maintain a regular sleep schedule\n");
-            response.append("• Consider talking to a mental health professional\n\n");
-            response.append("**📊 ChatGPT-5 Confidence Level: 88%**\n");
-            response.append("The AI has high confidence in this analysis.\n\n");
-        } else {
-            response.append("ChatGPT-5 analysis suggests monitoring your condition based on the symptoms you've described. ");
-            response.append("Keep track of any changes in severity or new symptoms.\n\n");
-            response.append("**🔍 ChatGPT-5 General Recommendations:**\n");
-            response.append("• Stay hydrated and get adequate rest\n");
-            response.append("• Monitor your symptoms\n");
-            response.append("• Seek medical attention if symptoms persist or worsen\n\n");
-            response.append("**📊 ChatGPT-5 Confidence Level: 75%**\n");
-            response.append("The AI has moderate confidence in this analysis.\n\n");
+        response.append("\n**🧠 Possible Conditions:**\n");
+        if (analysis.getPossibleConditions().isEmpty()) {
+            response.append("No specific condition matched the symptoms you've described. ");
+            response.append("Keep track of any changes in severity or new symptoms.\n");
+        }
+        for (SymptomEngine.ConditionMatch condition : analysis.getPossibleConditions()) {
+            response.append("• ").append(formatName(condition.getCondition()))
+                .append(String.format(" (%.0f%% match, %s)", condition.getConfidence() * 100, formatName(condition.getUrgency())))
+                .append("\n  ").append(condition.getDescription()).append("\n");
+            for (String recommendation : condition.getRecommendations()) {
+                response.append("  – ").append(recommendation).append("\n");
+            }
+        }
+
+        response.append("\n**🚦 Urgency Level:** ").append(formatName(analysis.getUrgencyLevel())).append("\n");
+        for (String warning : analysis.getWarnings()) {
+            response.append("⚠️ ").append(warning).append("\n");
         }
+
+        response.append("\n**🔍 Recommendations:**\n");
+        for (String recommendation : analysis.getRecommendations()) {
+            response.append("• ").append(recommendation).append("\n");
+        }
+
+        response.append(String.format("\n**📊 Confidence Level: %.0f%%**\n\n", analysis.getConfidenceScore() * 100));
         
         response.append("**⚠️ Important Disclaimer:**\n");
-        response.append("This ChatGPT-5 analysis is for informational purposes only and should not replace professional medical advice. ");
+        response.append("This analysis is for informational purposes only and should not replace professional medical advice. ");
         response.append("If you're experiencing severe symptoms, please consult a healthcare provider immediately.\n\n");
         
         response.append("**💙 Stay Calm:**\n");
         response.append("Remember, most health concerns are treatable. You're taking the right step by seeking information. ");
         response.append("Trust your instincts and don't hesitate to reach out to medical professionals when needed.\n\n");
         
-        response.append("**🤖 ChatGPT-5 Model Used:** GPT-5 (Latest Version)\n");
-        response.append("**🔒 Privacy:** Your medical data is encrypted and secure\n");
-        response.append("**⏱️ Analysis Time:** 3.2 seconds");
+        response.append("**🔒 Privacy:** Your symptoms are analyzed on this device and never leave it\n");
+        response.append("**⏱️ Analysis Time:** ").append(elapsedMicros).append(" µs");
         
         return response.toString();
     }
 
+    private static String formatName(String key) {
+        String words = key.replace('_', ' ');
+        return Character.toUpperCase(words.charAt(0)) + words.substring(1);
+    }
+
     private void displayAIResponse(String response) {
         aiResponseContainer.setVisible(true);
         aiResponseScrollPane.setVisible(true);
@@ -539,9 +513,9 @@ public class SymptomCheckerController {
             final ClipboardContent content = new ClipboardContent();
             content.putString(aiResponseArea.getText());
             clipboard.setContent(content);
-            mainController.showNotification("Copied", "ChatGPT-5 response copied to clipboard");
+            mainController.showNotification("Copied", "Symptom analysis copied to clipboard");
         } else {
-            mainController.showNotification("No Response", "No AI response to copy.");
+            mainController.showNotification("No Response", "No analysis to copy.");
         }
     }
 
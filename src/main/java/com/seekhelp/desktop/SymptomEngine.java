@@ -0,0 +1,209 @@
+package com.seekhelp.desktop;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// In-process port of MedicalAI.analyze_symptoms from ai_integration.py. The knowledge base is
+// compiled once into a symptom x condition weight matrix, so an analysis is a few array lookups.
+// Keep the tables and the scoring rules in step with the Python reference.
+public class SymptomEngine {
+
+    public static final String NON_URGENT = "non_urgent";
+    public static final String URGENT = "urgent";
+    public static final String EMERGENCY = "emergency";
+
+    // symptom_database: key, associated_conditions, urgency_indicators
+    private static final String[][][] SYMPTOMS = {
+        {{"headache"}, {"migraine", "tension", "cluster", "sinus"},
+            {"sudden severe", "with fever", "with confusion"}},
+        {{"fever"}, {"infection", "viral", "bacterial"},
+            {"above 103°F", "with rash", "with confusion"}},
+        {{"chest_pain"}, {"angina", "heart_attack", "acid_reflux"},
+            {"crushing pain", "radiating to arm", "with shortness of breath"}},
+        {{"shortness_of_breath"}, {"asthma", "pneumonia", "heart_failure"},
+            {"sudden onset", "with chest pain", "with blue lips"}},
+        {{"abdominal_pain"}, {"appendicitis", "gastritis", "food_poisoning"},
+            {"sudden severe", "with vomiting", "with fever"}}
+    };
+
+    // condition_database: only these conditions are ever reported
+    private static final Map<String, ConditionInfo> CONDITIONS = Map.of(
+        "migraine", new ConditionInfo(
+            "Severe headache often accompanied by nausea and sensitivity to light", NON_URGENT,
+            List.of("rest in dark room", "stay hydrated", "avoid triggers")),
+        "heart_attack", new ConditionInfo(
+            "Medical emergency requiring immediate attention", EMERGENCY,
+            List.of("call emergency immediately", "chew aspirin if available")),
+        "asthma", new ConditionInfo(
+            "Chronic respiratory condition causing breathing difficulties", URGENT,
+            List.of("use inhaler", "sit upright", "call doctor if severe")),
+        "appendicitis", new ConditionInfo(
+            "Inflammation of appendix requiring surgical intervention", EMERGENCY,
+            List.of("seek immediate medical attention", "do not eat or drink"))
+    );
+
+    private static final List<String> GENERAL_RECOMMENDATIONS = List.of(
+        "Stay hydrated",
+        "Get adequate rest",
+        "Avoid strenuous activities if experiencing symptoms"
+    );
+
+    private final Map<String, Integer> symptomIds = new HashMap<>();
+    private final String[] conditionNames;
+    private final ConditionInfo[] conditionInfo;
+    // weights[symptom] lists condition ids in the order the reference adds them, repeats allowed
+    private final int[][] weights;
+    private final String[][] urgencyIndicators;
+
+    public SymptomEngine() {
+        Map<String, Integer> conditionIds = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        weights = new int[SYMPTOMS.length][];
+        urgencyIndicators = new String[SYMPTOMS.length][];
+
+        for (int s = 0; s < SYMPTOMS.length; s++) {
+            symptomIds.put(SYMPTOMS[s][0][0], s);
+            String[] associated = SYMPTOMS[s][1];
+            weights[s] = new int[associated.length];
+            for (int i = 0; i < associated.length; i++) {
+                Integer id = conditionIds.get(associated[i]);
+                if (id == null) {
+                    id = names.size();
+                    conditionIds.put(associated[i], id);
+                    names.add(associated[i]);
+                }
+                weights[s][i] = id;
+            }
+            urgencyIndicators[s] = SYMPTOMS[s][2];
+        }
+
+        conditionNames = names.toArray(new String[0]);
+        conditionInfo = new ConditionInfo[conditionNames.length];
+        for (int c = 0; c < conditionNames.length; c++) {
+            conditionInfo[c] = CONDITIONS.get(conditionNames[c]);
+        }
+    }
+
+    public Analysis analyze(List<String> symptoms) {
+        int[] scores = new int[conditionNames.length];
+        // Conditions in first-scored order, matching the reference's dict insertion order
+        int[] scoredOrder = new int[conditionNames.length];
+        int scoredCount = 0;
+        List<String> warnings = new ArrayList<>();
+
+        for (String symptom : symptoms) {
+            String symptomLower = symptom.toLowerCase(Locale.ROOT);
+            Integer s = symptomIds.get(symptomLower.replace(" ", "_"));
+            if (s == null) {
+                continue;
+            }
+            for (String indicator : urgencyIndicators[s]) {
+                if (symptomLower.contains(indicator)) {
+                    warnings.add(symptom + ": " + indicator);
+                }
+            }
+            for (int c : weights[s]) {
+                if (scores[c]++ == 0) {
+                    scoredOrder[scoredCount++] = c;
+                }
+            }
+        }
+
+        List<ConditionMatch> conditions = new ArrayList<>();
+        boolean anyEmergency = false;
+        boolean anyUrgent = false;
+        double confidenceScore = 0.0;
+        for (int i = 0; i < scoredCount; i++) {
+            int c = scoredOrder[i];
+            ConditionInfo info = conditionInfo[c];
+            if (info == null) {
+                continue;
+            }
+            double confidence = Math.min(scores[c] * 0.3, 0.9);
+            conditions.add(new ConditionMatch(conditionNames[c], info, confidence));
+            anyEmergency |= EMERGENCY.equals(info.urgency);
+            anyUrgent |= URGENT.equals(info.urgency);
+            confidenceScore = Math.max(confidenceScore, confidence);
+        }
+
+        String urgencyLevel = NON_URGENT;
+        if (!warnings.isEmpty() || anyEmergency) {
+            urgencyLevel = EMERGENCY;
+        } else if (anyUrgent) {
+            urgencyLevel = URGENT;
+        }
+
+        List<String> recommendations = new ArrayList<>();
+        if (EMERGENCY.equals(urgencyLevel)) {
+            recommendations.add("🚨 SEEK IMMEDIATE MEDICAL ATTENTION");
+            recommendations.add("Call emergency services immediately");
+        } else if (URGENT.equals(urgencyLevel)) {
+            recommendations.add("⚠️ Consult a healthcare provider within 24 hours");
+        } else {
+            recommendations.add("✅ Monitor symptoms and consult doctor if they persist");
+        }
+        recommendations.addAll(GENERAL_RECOMMENDATIONS);
+
+        return new Analysis(symptoms, conditions, urgencyLevel, recommendations, warnings, confidenceScore);
+    }
+
+    private static class ConditionInfo {
+        private final String description;
+        private final String urgency;
+        private final List<String> recommendations;
+
+        ConditionInfo(String description, String urgency, List<String> recommendations) {
+            this.description = description;
+            this.urgency = urgency;
+            this.recommendations = recommendations;
+        }
+    }
+
+    public static class ConditionMatch {
+        private final String condition;
+        private final ConditionInfo info;
+        private final double confidence;
+
+        ConditionMatch(String condition, ConditionInfo info, double confidence) {
+            this.condition = condition;
+            this.info = info;
+            this.confidence = confidence;
+        }
+
+        public String getCondition() { return condition; }
+        public String getDescription() { return info.description; }
+        public double getConfidence() { return confidence; }
+        public String getUrgency() { return info.urgency; }
+        public List<String> getRecommendations() { return info.recommendations; }
+    }
+
+    public static class Analysis {
+        private final List<String> symptomsAnalyzed;
+        private final List<ConditionMatch> possibleConditions;
+        private final String urgencyLevel;
+        private final List<String> recommendations;
+        private final List<String> warnings;
+        private final double confidenceScore;
+
+        Analysis(List<String> symptomsAnalyzed, List<ConditionMatch> possibleConditions, String urgencyLevel,
+                 List<String> recommendations, List<String> warnings, double confidenceScore) {
+            this.symptomsAnalyzed = List.copyOf(symptomsAnalyzed);
+            this.possibleConditions = Collections.unmodifiableList(possibleConditions);
+            this.urgencyLevel = urgencyLevel;
+            this.recommendations = Collections.unmodifiableList(recommendations);
+            this.warnings = Collections.unmodifiableList(warnings);
+            this.confidenceScore = confidenceScore;
+        }
+
+        public List<String> getSymptomsAnalyzed() { return symptomsAnalyzed; }
+        public List<ConditionMatch> getPossibleConditions() { return possibleConditions; }
+        public String getUrgencyLevel() { return urgencyLevel; }
+        public List<String> getRecommendations() { return recommendations; }
+        public List<String> getWarnings() { return warnings; }
+        public double getConfidenceScore() { return confidenceScore; }
+    }
+}
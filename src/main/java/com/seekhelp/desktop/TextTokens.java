@@ -0,0 +1,33 @@
+package com.seekhelp.desktop;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// The one word splitter for search and matching: lower-case runs of letters and digits, so the
+// message log, the product catalog, drug names and prescription lines all agree on what a word is.
+public class TextTokens {
+
+    private TextTokens() {
+    }
+
+    // "Crocin 650mg, Tab." -> [crocin, 650mg, tab]; null gives an empty list
+    public static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
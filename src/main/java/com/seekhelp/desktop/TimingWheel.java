@@ -0,0 +1,145 @@
+package com.seekhelp.desktop;
+
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel: LEVELS wheels of SLOTS slots, each slot a doubly linked list of timers.
+// Level 0 holds timers due within SLOTS ticks, level 1 within SLOTS^2 ticks, and so on; when a lower
+// wheel wraps, the matching slot of the wheel above is cascaded down. Scheduling and cancelling are
+// O(1), and a tick only touches the slots it passes, however many timers are pending.
+// Not thread-safe; callers use it from one thread.
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final Timer<T>[][] wheels;
+    private long currentTick = 0;
+    private int size = 0;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.originMillis = nowMillis;
+        this.wheels = (Timer<T>[][]) new Timer<?>[LEVELS][SLOTS];
+    }
+
+    // Timers already due fire on the next tick
+    public Timer<T> schedule(T item, long deadlineMillis) {
+        Timer<T> timer = new Timer<>(item, Math.max(currentTick + 1, ceilDiv(deadlineMillis - originMillis, tickMillis)));
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    public void cancel(Timer<T> timer) {
+        if (timer.level >= 0) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    // Fires, in tick order, every timer due at or before now
+    public void advanceTo(long nowMillis, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            int slot = (int) (currentTick & SLOT_MASK);
+            Timer<T> timer = wheels[0][slot];
+            wheels[0][slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                timer.level = -1;
+                if (timer.deadlineTick <= currentTick) {
+                    size--;
+                    expired.accept(timer.item);
+                } else {
+                    place(timer);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // When the wheel below has just wrapped, moves this level's current slot down (and recurses upwards first)
+    private void cascade(int level) {
+        if (level >= LEVELS || ((currentTick >>> (SLOT_BITS * (level - 1))) & SLOT_MASK) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        Timer<T> timer = wheels[level][slot];
+        wheels[level][slot] = null;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = Math.min(timer.deadlineTick - currentTick, MAX_DELTA);
+        long tick = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        timer.level = level;
+        timer.slot = slot;
+        timer.next = wheels[level][slot];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        wheels[level][slot] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            wheels[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    public static class Timer<T> {
+        private final T item;
+        private final long deadlineTick;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private int level = -1;
+        private int slot;
+
+        Timer(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public boolean isPending() {
+            return level >= 0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.seekhelp.desktop;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javafx.application.Platform;
+import javafx.concurrent.Worker;
+import javafx.scene.web.WebEngine;
+
+import java.net.URL;
+
+// Plumbing shared by the bridges that drive a bundled page in a WebView: loads the page, tracks
+// whether it is ready for scripts, and coalesces changes made within one FX pulse into a single
+// flush. The owning bridge keeps what is pending and builds the script in its flush callback.
+// Used from the FX thread only.
+public class WebPageBridge {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final WebEngine webEngine;
+    private final String resource;
+    private final String pageUrl;
+    private final Runnable flush;
+    private boolean pageReady = false;
+    private boolean flushScheduled = false;
+
+    // onPageLoaded runs each time the page (re)loads, before the first flush to it
+    public WebPageBridge(WebEngine webEngine, String resource, Runnable onPageLoaded, Runnable flush) {
+        this.webEngine = webEngine;
+        this.resource = resource;
+        this.flush = flush;
+        URL page = WebPageBridge.class.getResource(resource);
+        this.pageUrl = page == null ? null : page.toExternalForm();
+
+        webEngine.getLoadWorker().stateProperty().addListener((observable, oldState, newState) -> {
+            if (newState == Worker.State.SUCCEEDED && pageUrl != null && pageUrl.equals(webEngine.getLocation())) {
+                pageReady = true;
+                onPageLoaded.run();
+                scheduleFlush();
+            } else if (newState == Worker.State.SCHEDULED) {
+                pageReady = false;
+            }
+        });
+    }
+
+    // Loads the page unless it is already showing, e.g. after another page replaced it
+    public void ensurePageLoaded() {
+        if (pageUrl == null) {
+            System.err.println("Page not found on the classpath: " + resource);
+            return;
+        }
+        if (!pageUrl.equals(webEngine.getLocation())) {
+            webEngine.load(pageUrl);
+        }
+    }
+
+    public boolean isPageReady() {
+        return pageReady;
+    }
+
+    // Runs the flush callback once on the next pulse; nothing is sent until the page has loaded
+    public void scheduleFlush() {
+        if (flushScheduled || !pageReady) {
+            return;
+        }
+        flushScheduled = true;
+        Platform.runLater(() -> {
+            flushScheduled = false;
+            if (pageReady) {
+                flush.run();
+            }
+        });
+    }
+
+    public void executeScript(String script) {
+        webEngine.executeScript(script);
+    }
+
+    // The value as a JavaScript literal
+    public static String encode(Object value) throws JsonProcessingException {
+        // U+2028/2029 are valid in JSON but end a line in a script literal
+        return JSON.writeValueAsString(value).replace("\u2028", "\\u2028").replace("\u2029", "\\u2029");
+    }
+}
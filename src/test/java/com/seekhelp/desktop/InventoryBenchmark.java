@@ -0,0 +1,72 @@
+package com.seekhelp.desktop;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Throughput of reserve + commit/release under contention; not part of the test suite.
+// Run with: java -cp <test and main classes> com.seekhelp.desktop.InventoryBenchmark [threads] [seconds] [skus]
+// Each operation reserves one unit of a random SKU and commits it, or releases it one time in ten.
+// A warm-up pass of the same length runs first; the totals check at the end must print "consistent".
+public class InventoryBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int skus = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        AppTaskScheduler scheduler = new AppTaskScheduler();
+        Inventory inventory = new Inventory(scheduler, reservation -> { });
+        for (int sku = 1; sku <= skus; sku++) {
+            inventory.register(sku, Integer.MAX_VALUE / 2);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            run(pool, inventory, threads, seconds, skus);
+            long operations = run(pool, inventory, threads, seconds, skus);
+            long available = 0;
+            long onHand = 0;
+            for (int sku = 1; sku <= skus; sku++) {
+                available += inventory.getAvailable(sku);
+                onHand += inventory.getOnHand(sku);
+            }
+            System.out.println(threads + " threads, " + skus + " SKUs: " + operations / seconds + " operations/s, "
+                + (available == onHand ? "consistent" : "INCONSISTENT (available " + available + ", on hand " + onHand + ")"));
+        } finally {
+            pool.shutdownNow();
+            scheduler.shutdown();
+        }
+    }
+
+    private static long run(ExecutorService pool, Inventory inventory, int threads, int seconds, int skus) throws Exception {
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long operations = 0;
+                while (System.nanoTime() < end) {
+                    Inventory.Reservation reservation = inventory.reserve(1 + random.nextInt(skus), 1, Duration.ofMinutes(1));
+                    if (reservation != null) {
+                        if (random.nextInt(10) == 0) {
+                            inventory.release(reservation);
+                        } else {
+                            inventory.commit(reservation);
+                        }
+                    }
+                    operations++;
+                }
+                return operations;
+            }));
+        }
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        return total;
+    }
+}
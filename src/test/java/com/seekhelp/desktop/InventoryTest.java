@@ -0,0 +1,92 @@
+package com.seekhelp.desktop;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    void exactlyOneCheckoutGetsTheLastUnit() throws Exception {
+        AppTaskScheduler scheduler = new AppTaskScheduler();
+        Inventory inventory = new Inventory(scheduler, reservation -> { });
+        ExecutorService buyers = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < 100; round++) {
+                int sku = round + 1;
+                inventory.register(sku, 1);
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<Boolean>> checkouts = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    checkouts.add(buyers.submit(() -> {
+                        go.await();
+                        Inventory.Reservation reservation = inventory.reserve(sku, 1, Duration.ofMinutes(1));
+                        return reservation != null && inventory.commit(reservation);
+                    }));
+                }
+                go.countDown();
+                int winners = 0;
+                for (Future<Boolean> checkout : checkouts) {
+                    if (checkout.get(10, TimeUnit.SECONDS)) {
+                        winners++;
+                    }
+                }
+                assertEquals(1, winners, "Round " + round);
+                assertEquals(0, inventory.getAvailable(sku));
+                assertEquals(0, inventory.getOnHand(sku));
+            }
+        } finally {
+            buyers.shutdownNow();
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void expiredHoldGoesBackToStock() throws Exception {
+        AppTaskScheduler scheduler = new AppTaskScheduler();
+        CountDownLatch expired = new CountDownLatch(1);
+        Inventory inventory = new Inventory(scheduler, reservation -> expired.countDown());
+        try {
+            inventory.register(1, 5);
+            Inventory.Reservation reservation = inventory.reserve(1, 3, Duration.ofMillis(50));
+            assertEquals(2, inventory.getAvailable(1));
+            assertTrue(expired.await(5, TimeUnit.SECONDS));
+            assertEquals(5, inventory.getAvailable(1));
+            assertFalse(inventory.commit(reservation));
+            assertEquals(5, inventory.getOnHand(1));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void releaseReturnsUnitsOnce() {
+        AppTaskScheduler scheduler = new AppTaskScheduler();
+        Inventory inventory = new Inventory(scheduler, reservation -> { });
+        try {
+            inventory.register(1, 2);
+            Inventory.Reservation reservation = inventory.reserve(1, 2, Duration.ofMinutes(1));
+            assertEquals(0, inventory.getAvailable(1));
+            assertTrue(inventory.release(reservation));
+            assertFalse(inventory.release(reservation));
+            assertFalse(inventory.commit(reservation));
+            assertEquals(2, inventory.getAvailable(1));
+            assertEquals(2, inventory.getOnHand(1));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
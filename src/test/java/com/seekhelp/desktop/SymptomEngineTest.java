@@ -0,0 +1,62 @@
+package com.seekhelp.desktop;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// SymptomEngine must give the same answers as MedicalAI.analyze_symptoms in ai_integration.py.
+// The corpus holds each case's symptoms with the Python result (timestamp removed); when the
+// reference changes, regenerate it by running analyze_symptoms over the same symptom lists.
+class SymptomEngineTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String CORPUS = "/symptoms/analyze-symptoms-corpus.json";
+
+    @Test
+    void matchesPythonReference() throws IOException {
+        SymptomEngine engine = new SymptomEngine();
+        JsonNode corpus;
+        try (InputStream in = SymptomEngineTest.class.getResourceAsStream(CORPUS)) {
+            assertNotNull(in, "Missing test corpus " + CORPUS);
+            corpus = JSON.readTree(in);
+        }
+        for (JsonNode entry : corpus) {
+            List<String> symptoms = new ArrayList<>();
+            entry.get("symptoms").forEach(symptom -> symptoms.add(symptom.asText()));
+            JsonNode actual = JSON.valueToTree(toReferenceShape(engine.analyze(symptoms)));
+            assertEquals(entry.get("expected"), actual, "Symptoms " + symptoms);
+        }
+    }
+
+    // The dictionary analyze_symptoms returns, field for field
+    private static Map<String, Object> toReferenceShape(SymptomEngine.Analysis analysis) {
+        List<Map<String, Object>> conditions = new ArrayList<>();
+        for (SymptomEngine.ConditionMatch match : analysis.getPossibleConditions()) {
+            Map<String, Object> condition = new LinkedHashMap<>();
+            condition.put("condition", match.getCondition());
+            condition.put("description", match.getDescription());
+            condition.put("confidence", match.getConfidence());
+            condition.put("urgency", match.getUrgency());
+            condition.put("recommendations", match.getRecommendations());
+            conditions.add(condition);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("symptoms_analyzed", analysis.getSymptomsAnalyzed());
+        result.put("possible_conditions", conditions);
+        result.put("urgency_level", analysis.getUrgencyLevel());
+        result.put("recommendations", analysis.getRecommendations());
+        result.put("warnings", analysis.getWarnings());
+        result.put("confidence_score", analysis.getConfidenceScore());
+        return result;
+    }
+}